@@ -0,0 +1,107 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.ArrayPacketBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.Byte.toUnsignedInt;
+import static java.lang.Byte.toUnsignedLong;
+
+/**
+ * Compares the {@link ArrayPacketBuffer} accessors with the byte by byte encoding used before the VarHandle accessors.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ArrayPacketBufferBenchmark {
+
+    private static final int VALUES = 256;
+
+    private ArrayPacketBuffer buffer;
+    private byte[] data;
+
+    @Setup
+    public void setUp() {
+        buffer = new ArrayPacketBuffer(VALUES * 14, ResourcePool.initialize(new ConnectionConfig<>(null, null, null)));
+        data = new byte[VALUES * 14];
+    }
+
+    @Benchmark
+    public long varHandle() {
+        buffer.position(0);
+        for (int i = 0; i < VALUES; i++) {
+            buffer.writeShort((short) i);
+            buffer.writeInt(i);
+            buffer.writeLong(i);
+        }
+        buffer.position(0);
+        long sum = 0;
+        for (int i = 0; i < VALUES; i++) {
+            sum += buffer.readShort() + buffer.readInt() + buffer.readLong();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long byteShift() {
+        int index = 0;
+        for (int i = 0; i < VALUES; i++) {
+            index = writeShort(index, (short) i);
+            index = writeInt(index, i);
+            index = writeLong(index, i);
+        }
+        index = 0;
+        long sum = 0;
+        for (int i = 0; i < VALUES; i++) {
+            sum += readShort(index) + readInt(index + 2) + readLong(index + 6);
+            index += 14;
+        }
+        return sum;
+    }
+
+    private int writeShort(int index, short value) {
+        data[index++] = (byte) value;
+        data[index++] = (byte) (value >>> 8);
+        return index;
+    }
+
+    private int writeInt(int index, int value) {
+        data[index++] = (byte) value;
+        data[index++] = (byte) (value >>> 8);
+        data[index++] = (byte) (value >>> 16);
+        data[index++] = (byte) (value >>> 24);
+        return index;
+    }
+
+    private int writeLong(int index, long value) {
+        data[index++] = (byte) value;
+        data[index++] = (byte) (value >>> 8);
+        data[index++] = (byte) (value >>> 16);
+        data[index++] = (byte) (value >>> 24);
+        data[index++] = (byte) (value >>> 32);
+        data[index++] = (byte) (value >>> 40);
+        data[index++] = (byte) (value >>> 48);
+        data[index++] = (byte) (value >>> 56);
+        return index;
+    }
+
+    private short readShort(int index) {
+        return (short) (toUnsignedInt(data[index++]) | toUnsignedInt(data[index]) << 8);
+    }
+
+    private int readInt(int index) {
+        return toUnsignedInt(data[index++]) | toUnsignedInt(data[index++]) << 8 | toUnsignedInt(data[index++]) << 16 | toUnsignedInt(data[index]) << 24;
+    }
+
+    private long readLong(int index) {
+        return  toUnsignedLong(data[index++])  |
+                toUnsignedLong(data[index++]) <<  8  |
+                toUnsignedLong(data[index++]) << 16 |
+                toUnsignedLong(data[index++]) << 24 |
+                toUnsignedLong(data[index++]) << 32 |
+                toUnsignedLong(data[index++]) << 40 |
+                toUnsignedLong(data[index++]) << 48 |
+                toUnsignedLong(data[index]) << 56;
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.ArrayPacketBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the bit packed fields with a byte for each field, writing and reading 32 flags and 8 small enums.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BitPackingBenchmark {
+
+    private static final int FLAGS = 32;
+    private static final int ENUMS = 8;
+
+    private ArrayPacketBuffer buffer;
+    private boolean[] flags;
+    private int[] enums;
+
+    @Setup
+    public void setUp() {
+        buffer = new ArrayPacketBuffer(64, ResourcePool.initialize(new ConnectionConfig<>(null, null, null)));
+        flags = new boolean[FLAGS];
+        enums = new int[ENUMS];
+        for (int i = 0; i < FLAGS; i++) {
+            flags[i] = i % 3 == 0;
+        }
+        for (int i = 0; i < ENUMS; i++) {
+            enums[i] = i % 6;
+        }
+    }
+
+    @Benchmark
+    public long bits() {
+        buffer.position(0);
+        for (boolean flag : flags) {
+            buffer.writeBits(flag ? 1 : 0, 1);
+        }
+        for (int value : enums) {
+            buffer.writeBits(value, 3);
+        }
+        buffer.position(0);
+        long sum = 0;
+        for (int i = 0; i < FLAGS; i++) {
+            sum += buffer.readBits(1);
+        }
+        for (int i = 0; i < ENUMS; i++) {
+            sum += buffer.readBits(3);
+        }
+        return sum + buffer.position();
+    }
+
+    @Benchmark
+    public long bytes() {
+        buffer.position(0);
+        for (boolean flag : flags) {
+            buffer.writeByte((byte) (flag ? 1 : 0));
+        }
+        for (int value : enums) {
+            buffer.writeByte((byte) value);
+        }
+        buffer.position(0);
+        long sum = 0;
+        for (int i = 0; i < FLAGS; i++) {
+            sum += buffer.readByte();
+        }
+        for (int i = 0; i < ENUMS; i++) {
+            sum += buffer.readByte();
+        }
+        return sum + buffer.position();
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.crypt.BlowfishCipher;
+import io.github.andyalvarezdev.mmocore.crypt.XorCipher;
+import io.github.andyalvarezdev.mmocore.internal.WritableBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the built-in ciphers with a byte by byte xor cipher and with the JDK Blowfish over a packet of 1000 bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CipherBenchmark {
+
+    private static final int SIZE = 1000;
+    private static final byte[] KEY = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16 };
+
+    private WritableBuffer buffer;
+    private XorCipher xorCipher;
+    private BlowfishCipher blowfishCipher;
+    private byte[] xorKey;
+    private Cipher jceCipher;
+    private byte[] jceData;
+
+    @Setup
+    public void setUp() throws GeneralSecurityException {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        config.newBufferGroup(8, 256);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        buffer = WritableBuffer.dynamicOf(ByteBuffer.allocateDirect(256).order(ByteOrder.LITTLE_ENDIAN), resourcePool);
+        for (int i = 0; i < SIZE; i++) {
+            buffer.writeByte((byte) i);
+        }
+        buffer.mark();
+        xorCipher = new XorCipher(KEY);
+        blowfishCipher = new BlowfishCipher(KEY, ByteOrder.LITTLE_ENDIAN);
+        xorKey = KEY.clone();
+        jceCipher = Cipher.getInstance("Blowfish/ECB/NoPadding");
+        jceCipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(KEY, "Blowfish"));
+        jceData = new byte[SIZE];
+    }
+
+    @Benchmark
+    public int xorByByte() {
+        int temp = 0;
+        for (int i = 0; i < SIZE; i++) {
+            temp = (buffer.readByte(i) & 0xFF) ^ xorKey[i & 15] ^ temp;
+            buffer.writeByte(i, (byte) temp);
+        }
+        return temp;
+    }
+
+    @Benchmark
+    public int xorCipher() {
+        xorCipher.encrypt(buffer, 0, SIZE);
+        return buffer.readByte(SIZE - 1);
+    }
+
+    @Benchmark
+    public int blowfishCipher() {
+        blowfishCipher.encrypt(buffer, 0, SIZE);
+        return buffer.readByte(SIZE - 1);
+    }
+
+    @Benchmark
+    public byte[] blowfishJce() throws GeneralSecurityException {
+        return jceCipher.doFinal(jceData, 0, SIZE);
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.andyalvarezdev.mmocore;
+
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opens many idle connections to a connection handler and reports the memory held by each connection.
+ *
+ * The connections are spread over the loopback addresses 127.0.0.1 to 127.0.0.4 to stay below the ephemeral port limit.
+ * The heap and direct memory are measured after a GC, so they include both ends of each connection. The size of a single
+ * server client is measured with JOL as the size of the graph of two clients minus the size of the graph of one client,
+ * which leaves out the state shared by all the clients.
+ *
+ * Run with {@code gradle connectionFootprint -Pconnections=100000}, the limit of open files must be above twice the connections.
+ */
+public class ConnectionFootprint {
+
+    private static final int PORT = 9093;
+    private static final int LOOPBACK_ADDRESSES = 4;
+
+    public static void main(String[] args) throws Exception {
+        int connections = Integer.getInteger("connections", 100000);
+        Queue<FootprintClient> accepted = new ConcurrentLinkedQueue<>();
+        FootprintHandler handler = new FootprintHandler();
+
+        ConnectionHandler<FootprintClient> connectionHandler = ConnectionBuilder.create(new InetSocketAddress(PORT), connection -> {
+            FootprintClient client = new FootprintClient(connection);
+            accepted.add(client);
+            return client;
+        }, handler, handler).threadPoolSize(4).shutdownWaitTime(500).build();
+        connectionHandler.start();
+
+        Connector<FootprintClient> connector = Connector.create(FootprintClient::new, handler, handler);
+        MemoryUsage before = MemoryUsage.measure();
+        List<FootprintClient> clients = new ArrayList<>(connections);
+        long start = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            clients.add(connector.connect(new InetSocketAddress("127.0.0." + (1 + i % LOOPBACK_ADDRESSES), PORT)));
+            if((i + 1) % 10000 == 0) {
+                System.out.printf("%d connections in %d ms%n", i + 1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        }
+        while (accepted.size() < connections) {
+            Thread.sleep(100);
+        }
+
+        MemoryUsage after = MemoryUsage.measure();
+        System.out.printf("heap per connection: %d bytes%n", (after.heap - before.heap) / connections);
+        System.out.printf("direct memory per connection: %d bytes%n", (after.direct - before.direct) / connections);
+
+        FootprintClient first = accepted.poll();
+        FootprintClient second = accepted.poll();
+        long single = GraphLayout.parseInstance(first).totalSize();
+        System.out.printf("server client retained size: %d bytes%n", GraphLayout.parseInstance(first, second).totalSize() - single);
+        System.out.println(ClassLayout.parseClass(Client.class).toPrintable());
+        System.out.println(ClassLayout.parseClass(Connection.class).toPrintable());
+
+        clients.forEach(Client::close);
+        connector.shutdown();
+        connectionHandler.shutdown();
+        connectionHandler.join();
+        System.exit(0);
+    }
+
+    private static final class MemoryUsage {
+        private final long heap;
+        private final long direct;
+
+        private MemoryUsage(long heap, long direct) {
+            this.heap = heap;
+            this.direct = direct;
+        }
+
+        static MemoryUsage measure() throws InterruptedException {
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+                Thread.sleep(200);
+            }
+            long direct = 0;
+            for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+                if("direct".equals(pool.getName())) {
+                    direct = pool.getMemoryUsed();
+                }
+            }
+            return new MemoryUsage(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(), direct);
+        }
+    }
+
+    static final class FootprintClient extends Client<Connection<FootprintClient>> {
+
+        FootprintClient(Connection<FootprintClient> connection) {
+            super(connection);
+        }
+
+        @Override
+        public boolean encrypt(Buffer data, int offset, int size) {
+            return true;
+        }
+
+        @Override
+        public boolean decrypt(Buffer data, int offset, int size) {
+            return true;
+        }
+
+        @Override
+        protected void onDisconnection() {
+        }
+
+        @Override
+        public void onConnected() {
+        }
+    }
+
+    private static final class FootprintHandler implements PacketHandler<FootprintClient>, PacketExecutor<FootprintClient> {
+
+        @Override
+        public ReadablePacket<FootprintClient> handlePacket(ReadableBuffer buffer, FootprintClient client) {
+            return null;
+        }
+
+        @Override
+        public void execute(ReadablePacket<FootprintClient> packet) {
+            packet.run();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.SegmentBuffers;
+import io.github.andyalvarezdev.mmocore.internal.WritableBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Compares writing and reading a packet of 3584 bytes on the pooled {@code DynamicPacketBuffer} segments
+ * with the same packet on a buffer backed by a memory segment, both buffers start with 256 bytes.
+ *
+ * The memory segment buffer requires running the jmh jar on Java 22.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MemorySegmentBufferBenchmark {
+
+    private static final int VALUES = 256;
+
+    @Param({"dynamic", "segment"})
+    private String buffer;
+
+    private ResourcePool resourcePool;
+    private SegmentBuffers segmentBuffers;
+
+    @Setup
+    public void setUp() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        config.newBufferGroup(64, 256);
+        config.newBufferGroup(8, 4096);
+        resourcePool = ResourcePool.initialize(config);
+        if("segment".equals(buffer)) {
+            segmentBuffers = SegmentBuffers.create();
+            if(isNull(segmentBuffers)) {
+                throw new IllegalStateException("The memory segments require Java 22");
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if(nonNull(segmentBuffers)) {
+            segmentBuffers.close();
+        }
+    }
+
+    @Benchmark
+    public long writeAndRead() {
+        WritableBuffer data = isNull(segmentBuffers) ? WritableBuffer.dynamicOf(resourcePool.getSegmentBuffer(), resourcePool) : segmentBuffers.newBuffer(256);
+        for (int i = 0; i < VALUES; i++) {
+            data.writeShort((short) i);
+            data.writeInt(i);
+            data.writeLong(i);
+        }
+        data.mark();
+        data.position(0);
+        ReadableBuffer readable = (ReadableBuffer) data;
+        long sum = 0;
+        for (int i = 0; i < VALUES; i++) {
+            sum += readable.readShort() + readable.readInt() + readable.readLong();
+        }
+        data.releaseResources();
+        return sum;
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.WritableBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a xor cipher over a packet of 1000 bytes held by 256 bytes segments
+ * accessing each byte by index with accessing 8 bytes at a time through the segments.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SegmentAccessBenchmark {
+
+    private static final int SIZE = 1000;
+    private static final long KEY = 0x5A5A5A5A5A5A5A5AL;
+
+    private WritableBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        config.newBufferGroup(8, 256);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        buffer = WritableBuffer.dynamicOf(ByteBuffer.allocateDirect(256).order(ByteOrder.LITTLE_ENDIAN), resourcePool);
+        for (int i = 0; i < SIZE; i++) {
+            buffer.writeByte((byte) i);
+        }
+        buffer.mark();
+    }
+
+    @Benchmark
+    public int byIndex() {
+        for (int i = 0; i < SIZE; i++) {
+            buffer.writeByte(i, (byte) (buffer.readByte(i) ^ KEY));
+        }
+        return buffer.readByte(SIZE - 1);
+    }
+
+    @Benchmark
+    public int bySegment() {
+        buffer.forEachSegment(0, SIZE, (segment, index) -> {
+            while (segment.remaining() >= Long.BYTES) {
+                segment.putLong(segment.getLong(segment.position()) ^ KEY);
+            }
+            while (segment.hasRemaining()) {
+                segment.put((byte) (segment.get(segment.position()) ^ KEY));
+            }
+        });
+        return buffer.readByte(SIZE - 1);
+    }
+}
@@ -21,6 +21,20 @@ public interface Buffer {
 
     void writeInt(int index, int value);
 
+    long readLong(int index);
+
+    void writeLong(int index, long value);
+
+    /**
+     * Iterates over the contiguous regions holding the data from index until index + length. <BR>
+     * It allows to process the data using the {@link java.nio.ByteBuffer} bulk operations instead of an access by index.
+     *
+     * @param index the index of the first byte
+     * @param length the amount of bytes
+     * @param consumer the consumer of each region, in order
+     */
+    void forEachSegment(int index, int length, SegmentConsumer consumer);
+
     int limit();
 
     void limit(int newLimit);
@@ -0,0 +1,91 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.BufferPool;
+
+/**
+ * A snapshot of the state of a buffer pool.
+ *
+ * The hits and misses count all the buffers taken from the pool, a miss means a new buffer was allocated.
+ * The grows and trims count the changes of capacity made by the tuning of the pool.
+ */
+public final class BufferPoolMetrics {
+
+    private final int bufferSize;
+    private final int capacity;
+    private final int idle;
+    private final int inUse;
+    private final int highWaterMark;
+    private final long hits;
+    private final long misses;
+    private final long grows;
+    private final long trims;
+
+    BufferPoolMetrics(BufferPool pool) {
+        bufferSize = pool.bufferSize();
+        capacity = pool.capacity();
+        idle = pool.idle();
+        inUse = pool.inUse();
+        highWaterMark = pool.highWaterMark();
+        hits = pool.hits();
+        misses = pool.misses();
+        grows = pool.grows();
+        trims = pool.trims();
+    }
+
+    /**
+     * @return the size of the buffers held by the pool.
+     */
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return the max amount of idle buffers held by the pool.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the amount of buffers ready to be taken.
+     */
+    public int idle() {
+        return idle;
+    }
+
+    /**
+     * @return the amount of buffers taken and not recycled yet.
+     */
+    public int inUse() {
+        return inUse;
+    }
+
+    /**
+     * @return the highest amount of buffers in use during the current window.
+     */
+    public int highWaterMark() {
+        return highWaterMark;
+    }
+
+    public long hits() {
+        return hits;
+    }
+
+    public long misses() {
+        return misses;
+    }
+
+    public long grows() {
+        return grows;
+    }
+
+    public long trims() {
+        return trims;
+    }
+
+    @Override
+    public String toString() {
+        return "BufferPool[" + bufferSize + "] capacity=" + capacity + " idle=" + idle + " inUse=" + inUse +
+                " highWaterMark=" + highWaterMark + " hits=" + hits + " misses=" + misses + " grows=" + grows + " trims=" + trims;
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.SharedBuffers;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A packet serialized once and shared by all clients it is sent to.
+ *
+ * The wrapped packet is written on the first send after the creation or the last {@link #invalidate()}.
+ * The clients without data transformation, no {@link PacketCodec} and {@link Client#isEncryptionEnabled()} false,
+ * share the same read-only frame. Any other client copies the serialized payload into its own buffer,
+ * so it can be transformed in-place.
+ *
+ * The packet can be sent many times, to many clients, and must not be acquired from a {@link WritablePacketPool}.
+ *
+ * @param <T> - The Type of client the packet is sent to.
+ */
+public final class CachedPacket<T extends Client<Connection<T>>> extends WritablePacket<T> {
+
+    private final WritablePacket<T> packet;
+    private volatile byte[] payload;
+    private volatile SharedBuffers frame;
+    private ResourcePool framePool;
+
+    /**
+     * Creates a cache of the packet.
+     *
+     * @param packet - the packet to be cached, it's written only when the cache is empty.
+     */
+    public CachedPacket(WritablePacket<T> packet) {
+        this.packet = requireNonNull(packet);
+    }
+
+    /**
+     * Discards the cached data, so the next send writes the packet again.
+     *
+     * It must be called whenever the data written by the packet changes. The sends in progress are not affected.
+     */
+    public synchronized void invalidate() {
+        payload = null;
+        releaseFrame();
+    }
+
+    private void releaseFrame() {
+        SharedBuffers current = frame;
+        frame = null;
+        framePool = null;
+        if(nonNull(current)) {
+            current.release();
+        }
+    }
+
+    @Override
+    protected boolean write(T client) {
+        byte[] data = payload;
+        if(isNull(data) && isNull(data = serializePayload(client))) {
+            return false;
+        }
+        writeBytes(data);
+        return true;
+    }
+
+    private synchronized byte[] serializePayload(T client) {
+        if(isNull(payload)) {
+            payload = packet.serialize(client);
+        }
+        return payload;
+    }
+
+    /**
+     * Takes a reference to the shared frame, creating it if the cache is empty.
+     *
+     * The frame is created with the client's pipeline, so it's replaced when a client using another {@link ResourcePool}
+     * takes it.
+     *
+     * @return the frame retained for the caller or null if the packet was not written
+     */
+    SharedBuffers acquireFrame(T client) {
+        SharedBuffers current = frame;
+        if(nonNull(current) && framePool == client.getResourcePool() && current.retain()) {
+            return current;
+        }
+        synchronized (this) {
+            current = frame;
+            if(nonNull(current) && framePool == client.getResourcePool() && current.retain()) {
+                return current;
+            }
+            SharedBuffers created = client.createSharedFrame(this);
+            if(isNull(created)) {
+                return null;
+            }
+            releaseFrame();
+            created.retain();
+            framePool = client.getResourcePool();
+            frame = created;
+            return created;
+        }
+    }
+
+    @Override
+    PacketSizePredictor sizePredictor() {
+        return packet.sizePredictor();
+    }
+
+    @Override
+    public String toString() {
+        return "Cached" + packet;
+    }
+}
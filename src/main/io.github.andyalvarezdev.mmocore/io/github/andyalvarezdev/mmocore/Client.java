@@ -1,29 +1,58 @@
 package io.github.andyalvarezdev.mmocore;
 
+import io.github.andyalvarezdev.mmocore.internal.Compressor;
+import io.github.andyalvarezdev.mmocore.internal.DynamicPacketBuffer;
+import io.github.andyalvarezdev.mmocore.internal.FrameHeader;
+import io.github.andyalvarezdev.mmocore.internal.SharedBuffers;
+import io.github.andyalvarezdev.mmocore.internal.SnapshotBaselines;
+import io.github.andyalvarezdev.mmocore.internal.SnapshotHistory;
 import io.github.andyalvarezdev.mmocore.internal.WritableBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
-import static io.github.andyalvarezdev.mmocore.ConnectionConfig.HEADER_SIZE;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 public abstract class Client<T extends Connection<?>> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Client.class);
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<Client> WRITING = AtomicIntegerFieldUpdater.newUpdater(Client.class, "writing");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<Client> WRITES_DEFERRED = AtomicIntegerFieldUpdater.newUpdater(Client.class, "writesDeferred");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Client, Queue> STREAMS = AtomicReferenceFieldUpdater.newUpdater(Client.class, Queue.class, "streams");
 
     private final T connection;
     private final Queue<WritablePacket<? extends Client<T>>> packetsToWrite = new ConcurrentLinkedQueue<>();
-    private final AtomicBoolean writing = new AtomicBoolean(false);
+    private volatile Queue<StreamPacket<? extends Client<T>>> streams;
+    private volatile int writing;
+    private volatile int writesDeferred;
     private int dataSentSize;
     private volatile boolean isClosing;
     private ResourcePool resourcePool;
+    private PacketCodec[] codecs;
+    private RateLimiter rateLimiter;
+    /**
+     * The min frame size in the high half and the max frame size in the low half, published together to the IO thread.
+     */
+    private volatile long frameSizeLimits;
     private boolean readingPayload;
+    private boolean compressedPayload;
+    private boolean fragmentPayload;
+    private DynamicPacketBuffer fragments;
     private int expectedReadSize;
+    private SnapshotBaselines snapshotBaselines;
+    private SnapshotHistory snapshotHistory;
 
     /**
      * Construct a new Client
@@ -50,72 +79,258 @@ public abstract class Client<T extends Connection<?>> {
         if(!isConnected() || isNull(packet)) {
             return;
         }
+        packet.retain();
         packetsToWrite.add(packet);
         tryWriteNextPacket();
     }
 
+    /**
+     * Sends a stream to this client.
+     *
+     * The chunks of the stream are sent one at a time, only when there is no other packet waiting to be sent.
+     * Many streams to the same client are sent interleaved.
+     *
+     * @param stream to be sent.
+     */
+    protected final void writeStream(StreamPacket<? extends Client<T>> stream) {
+        if(isNull(stream)) {
+            return;
+        }
+        if(!isConnected()) {
+            stream.finish(false);
+            return;
+        }
+        stream.retain();
+        streamsQueue().add(stream);
+        tryWriteNextPacket();
+    }
+
+    /**
+     * The streams are rare, so their queue is created only when the first stream is sent.
+     */
+    private Queue<StreamPacket<? extends Client<T>>> streamsQueue() {
+        Queue<StreamPacket<? extends Client<T>>> queue = streams;
+        if(isNull(queue)) {
+            STREAMS.compareAndSet(this, null, new ConcurrentLinkedQueue<>());
+            queue = streams;
+        }
+        return queue;
+    }
+
+    private boolean hasStreams() {
+        Queue<StreamPacket<? extends Client<T>>> queue = streams;
+        return nonNull(queue) && !queue.isEmpty();
+    }
+
     private void tryWriteNextPacket() {
-        if(writing.compareAndSet(false, true)) {
-            if(packetsToWrite.isEmpty()) {
+        if(WRITING.compareAndSet(this, 0, 1)) {
+            if((!packetsToWrite.isEmpty() || hasStreams()) && resourcePool.isDirectMemoryExhausted()) {
+                writing = 0;
+                deferWrites();
+            } else if(!packetsToWrite.isEmpty()) {
+                write(packetsToWrite.poll());
+            } else if(hasStreams()) {
+                writeNextChunk(streams.poll());
+            } else {
                 connection.releaseWritingBuffer();
-                writing.set(false);
+                writing = 0;
                 LOGGER.debug("There is no packet to send");
                 if(isClosing) {
                     disconnect();
                 }
-            } else {
-                write(packetsToWrite.poll());
             }
         }
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    private void write(WritablePacket packet) {
-        boolean sendedData = false;
-        try {
-            WritableBuffer data = packet.writeData(this);
+    private void deferWrites() {
+        if(WRITES_DEFERRED.compareAndSet(this, 0, 1)) {
+            LOGGER.debug("Deferring the packets to {} until there is direct memory available", this);
+            resourcePool.deferWrite(this::resumeWrites);
+        }
+    }
 
-            if(isNull(data)) {
-                return;
-            }
+    private void resumeWrites() {
+        writesDeferred = 0;
+        if(connection.isOpen()) {
+            tryWriteNextPacket();
+        }
+    }
 
-            var payloadSize = data.limit() - HEADER_SIZE;
-            if(payloadSize <= 0) {
-                return;
-            }
+    private void writeNextChunk(StreamPacket<? extends Client<T>> stream) {
+        boolean hasChunk;
+        try {
+            hasChunk = stream.nextChunk(resourcePool.getStreamChunkSize(), resourcePool.getStreamWindowSize());
+        } catch (IOException e) {
+            LOGGER.error("Failed to read the stream {}", stream, e);
+            stream.finish(false);
+            finishWriting();
+            return;
+        }
 
-            if(encrypt(data, HEADER_SIZE, payloadSize)) {
-                dataSentSize = data.limit();
+        if(!hasChunk) {
+            stream.finish(true);
+            finishWriting();
+            return;
+        }
 
-                if (dataSentSize <= HEADER_SIZE) {
-                    return;
-                }
+        stream.retain();
+        if(write(stream)) {
+            streamsQueue().add(stream);
+            tryWriteNextPacket();
+        } else {
+            stream.finish(false);
+        }
+    }
 
-                packet.writeHeaderAndRecord(dataSentSize);
-                sendedData = connection.write(data.toByteBuffers());
-                LOGGER.debug("Sending packet {}[{}] to {}", packet, dataSentSize, this);
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private boolean write(WritablePacket packet) {
+        boolean sendedData = false;
+        try {
+            if(packet instanceof CachedPacket && codecs.length == 0 && !isEncryptionEnabled()) {
+                sendedData = writeShared((CachedPacket) packet);
+            } else {
+                ByteBuffer[] buffers = frame(packet);
+                if(nonNull(buffers)) {
+                    dataSentSize = remaining(buffers);
+                    sendedData = connection.write(packet.releaseData(), buffers);
+                }
             }
+            LOGGER.debug("Sending packet {}[{}] to {}", packet, dataSentSize, this);
         } catch (Exception e) {
             LOGGER.error(e.getMessage(), e);
         } finally {
             WritableBuffer writable = packet.releaseData();
             if(!sendedData) {
                 connection.releaseWritingBuffer();
-                writable.releaseResources();
+                if(nonNull(writable)) {
+                    writable.releaseResources();
+                }
                 finishWriting();
             }
+            packet.release();
+        }
+        return sendedData;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private boolean writeShared(CachedPacket packet) {
+        SharedBuffers frame = packet.acquireFrame(this);
+        if(isNull(frame)) {
+            return false;
+        }
+        dataSentSize = frame.size();
+        return connection.write(frame);
+    }
+
+    @SuppressWarnings("rawtypes")
+    SharedBuffers createSharedFrame(CachedPacket packet) {
+        try {
+            ByteBuffer[] buffers = frame(packet);
+            return isNull(buffers) ? null : new SharedBuffers(packet.releaseData(), buffers);
+        } finally {
+            WritableBuffer data = packet.releaseData();
+            if(nonNull(data)) {
+                data.releaseResources();
+            }
+        }
+    }
+
+    /**
+     * Writes the packet data and the frame header.
+     *
+     * @return the buffers holding the frames or null if there is nothing to be sent
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ByteBuffer[] frame(WritablePacket packet) {
+        WritableBuffer data = packet.writeData(this);
+        if(isNull(data)) {
+            return null;
+        }
+
+        FrameHeader frameHeader = resourcePool.getFrameHeader();
+        int reserved = frameHeader.reservedSize();
+        var dataSize = data.limit();
+        if(dataSize <= reserved) {
+            return null;
+        }
+
+        int flags = 0;
+        Compressor compressor = resourcePool.getCompressor();
+        if(nonNull(compressor)) {
+            WritableBuffer compressed = compressor.compress(data, reserved, resourcePool);
+            if(nonNull(compressed)) {
+                packet.replaceData(compressed);
+                data = compressed;
+                flags = frameHeader.compressedFlag();
+            }
+        }
+
+        if(!encode(data, reserved) || data.limit() <= reserved) {
+            return null;
+        }
+
+        if(frameHeader.fits(data.limit() - reserved, flags)) {
+            int frameStart = frameHeader.write(data, flags);
+            ByteBuffer[] buffers = data.toByteBuffers();
+            buffers[0].position(frameStart);
+            return buffers;
+        } else if(frameHeader.isFragmentationEnabled()) {
+            WritableBuffer frames = frameHeader.fragment(data, flags, resourcePool);
+            packet.replaceData(frames);
+            return frames.toByteBuffers();
+        }
+        throw new IllegalStateException("The packet " + packet + " with " + data.limit() + " bytes is larger than the max frame size");
+    }
+
+    private static int remaining(ByteBuffer[] buffers) {
+        int remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
         }
+        return remaining;
     }
 
     void read() {
-        expectedReadSize = HEADER_SIZE;
+        expectedReadSize = resourcePool.getFrameHeader().minSize();
         readingPayload = false;
         connection.readHeader();
     }
 
-    void readPayload(int dataSize) {
+    void limitFrame(int size) {
+        if(nonNull(rateLimiter)) {
+            rateLimiter.onFrame(size);
+        }
+    }
+
+    void limitPacket(int rateClass) {
+        if(nonNull(rateLimiter)) {
+            rateLimiter.onPacket(rateClass);
+        }
+    }
+
+    /**
+     * @return the nanoseconds the next read must wait to respect the rate limits.
+     */
+    long takeReadDelay() {
+        return isNull(rateLimiter) ? 0 : rateLimiter.takeDelay();
+    }
+
+    int getRateLimitViolations() {
+        return isNull(rateLimiter) ? 0 : rateLimiter.violations();
+    }
+
+    void resumeHeader() {
+        ByteBuffer buffer = connection.getReadingBuffer();
+        buffer.limit(buffer.position() + 1);
+        expectedReadSize = 1;
+        connection.read();
+    }
+
+    void readPayload(int dataSize, boolean compressed, boolean fragment) {
         expectedReadSize = dataSize;
         readingPayload = true;
+        compressedPayload = compressed;
+        fragmentPayload = fragment;
         connection.read(dataSize);
     }
 
@@ -140,8 +355,9 @@ public abstract class Client<T extends Connection<?>> {
         if(!isConnected()) {
             return;
         }
-        packetsToWrite.clear();
+        discardPendingPackets();
         if(nonNull(packet)) {
+            packet.retain();
             packetsToWrite.add(packet);
         }
         isClosing = true;
@@ -149,6 +365,25 @@ public abstract class Client<T extends Connection<?>> {
         tryWriteNextPacket();
     }
 
+    private void discardPendingPackets() {
+        WritablePacket<? extends Client<T>> packet;
+        while (nonNull(packet = packetsToWrite.poll())) {
+            packet.release();
+        }
+        discardStreams();
+    }
+
+    private void discardStreams() {
+        Queue<StreamPacket<? extends Client<T>>> queue = streams;
+        if(isNull(queue)) {
+            return;
+        }
+        StreamPacket<? extends Client<T>> stream;
+        while (nonNull(stream = queue.poll())) {
+            stream.finish(false);
+        }
+    }
+
     void resumeSend(long result) {
         dataSentSize-= result;
         connection.write();
@@ -156,7 +391,7 @@ public abstract class Client<T extends Connection<?>> {
 
     void finishWriting() {
         connection.releaseWritingBuffer();
-        writing.set(false);
+        writing = 0;
         tryWriteNextPacket();
     }
 
@@ -169,10 +404,25 @@ public abstract class Client<T extends Connection<?>> {
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
         } finally {
-            connection.close();
+            releaseConnection();
         }
     }
 
+    /**
+     * Disconnects without giving time to send the last packet, used when the client can't be trusted anymore.
+     */
+    final void abort() {
+        LOGGER.debug("Client {} aborted", this);
+        onDisconnection();
+        releaseConnection();
+    }
+
+    private void releaseConnection() {
+        connection.close();
+        releaseFragments();
+        discardStreams();
+    }
+
     T getConnection() {
         return connection;
     }
@@ -197,16 +447,113 @@ public abstract class Client<T extends Connection<?>> {
 
     void setResourcePool(ResourcePool resourcePool) {
         this.resourcePool = resourcePool;
+        this.codecs = resourcePool.createCodecs();
+        this.rateLimiter = resourcePool.createRateLimiter();
+        this.frameSizeLimits = frameSizeLimits(resourcePool.getMinFrameSize(), resourcePool.getMaxFrameSize());
+    }
+
+    /**
+     * Limits the size of the frames received from this client, the header included.
+     *
+     * A frame out of the limits disconnects the client before its payload is read. The limits may follow the state of the client,
+     * e.g. accepting only small frames until the client is authenticated. The limits are bounded by the format of the frame header.
+     *
+     * @param minSize the min size of a frame
+     * @param maxSize the max size of a frame
+     */
+    protected final void setFrameSizeLimits(int minSize, int maxSize) {
+        if(minSize > maxSize) {
+            throw new IllegalArgumentException("The min frame size is greater than the max frame size");
+        }
+        FrameHeader frameHeader = resourcePool.getFrameHeader();
+        this.frameSizeLimits = frameSizeLimits(max(frameHeader.minSize(), minSize), min(frameHeader.maxFrameSize(), maxSize));
+    }
+
+    private static long frameSizeLimits(int minSize, int maxSize) {
+        return (long) minSize << 32 | (maxSize & 0xFFFFFFFFL);
+    }
+
+    boolean acceptsFrameSize(long frameSize, int headerSize) {
+        long limits = frameSizeLimits;
+        return frameSize >= max(headerSize, (int) (limits >>> 32)) && frameSize <= (int) limits;
+    }
+
+    int getMinFrameSize() {
+        return (int) (frameSizeLimits >>> 32);
+    }
+
+    int getMaxFrameSize() {
+        return (int) frameSizeLimits;
     }
 
     ResourcePool getResourcePool() {
         return resourcePool;
     }
 
+    synchronized SnapshotBaselines getSnapshotBaselines() {
+        if(isNull(snapshotBaselines)) {
+            snapshotBaselines = new SnapshotBaselines(resourcePool.getSnapshotTimeout());
+        }
+        return snapshotBaselines;
+    }
+
+    synchronized SnapshotHistory getSnapshotHistory() {
+        if(isNull(snapshotHistory)) {
+            snapshotHistory = new SnapshotHistory(resourcePool.getSnapshotTimeout(), resourcePool.getMaxSnapshotSize(),
+                    resourcePool.getMaxSnapshotObjects());
+        }
+        return snapshotHistory;
+    }
+
     boolean isReadingPayload() {
         return readingPayload;
     }
 
+    boolean isCompressedPayload() {
+        return compressedPayload;
+    }
+
+    boolean isFragmentPayload() {
+        return fragmentPayload;
+    }
+
+    boolean hasFragments() {
+        return nonNull(fragments);
+    }
+
+    /**
+     * @return false if the payload was not appended because the reassembled packet would exceed the max reassembled size.
+     */
+    boolean appendFragment(ByteBuffer payload) {
+        int size = isNull(fragments) ? 0 : fragments.position();
+        if((long) size + payload.remaining() > resourcePool.getMaxReassembledSize()) {
+            return false;
+        }
+        if(isNull(fragments)) {
+            fragments = new DynamicPacketBuffer(resourcePool.getSegmentBuffer(), resourcePool);
+        }
+        fragments.writeBytes(payload);
+        return true;
+    }
+
+    /**
+     * @return the buffer holding the reassembled payload, ready to be read from its beginning.
+     */
+    DynamicPacketBuffer takeFragments() {
+        DynamicPacketBuffer payload = fragments;
+        fragments = null;
+        payload.mark();
+        payload.position(0);
+        return payload;
+    }
+
+    private void releaseFragments() {
+        if(nonNull(fragments)) {
+            fragments.releaseResources();
+            fragments = null;
+        }
+    }
+
     void resumeRead(int bytesRead) {
         expectedReadSize -=  bytesRead;
         connection.read();
@@ -216,8 +563,42 @@ public abstract class Client<T extends Connection<?>> {
         return expectedReadSize;
     }
 
+    private boolean encode(Buffer data, int offset) {
+        for (PacketCodec codec : codecs) {
+            if(!codec.encode(data, offset, data.limit() - offset)) {
+                return false;
+            }
+        }
+        return encrypt(data, offset, data.limit() - offset);
+    }
+
+    boolean decode(Buffer data) {
+        if(!decrypt(data, 0, data.limit())) {
+            return false;
+        }
+        for (int i = codecs.length - 1; i >= 0; i--) {
+            if(!codecs[i].decode(data, 0, data.limit())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks if {@link #encrypt(Buffer, int, int)} changes the data.
+     *
+     * A {@link CachedPacket} is sent to the clients without encryption and {@link PacketCodec} sharing a single frame,
+     * any other client copies the packet's payload. The default value is true.
+     *
+     * @return if the data sent to the client is encrypted
+     */
+    protected boolean isEncryptionEnabled() {
+        return true;
+    }
+
     /**
      * Encrypt the data in-place.
+     * It's called after the outbound stages of the {@link PacketCodec} pipeline.
      * @param data - the data to be encrypted
      * @param offset - the initial index to be encrypted
      * @param size - the length of data to be encrypted
@@ -228,6 +609,7 @@ public abstract class Client<T extends Connection<?>> {
 
     /**
      * Decrypt the data in-place
+     * It's called before the inbound stages of the {@link PacketCodec} pipeline.
      *
      * @param data - data to be decrypted
      * @param offset - the initial index to be encrypted.
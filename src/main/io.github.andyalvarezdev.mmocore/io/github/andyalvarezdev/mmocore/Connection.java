@@ -1,5 +1,7 @@
 package io.github.andyalvarezdev.mmocore;
 
+import io.github.andyalvarezdev.mmocore.internal.SharedBuffers;
+import io.github.andyalvarezdev.mmocore.internal.WritableBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -9,6 +11,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousSocketChannel;
 import java.util.concurrent.TimeUnit;
 
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 public class Connection<T extends Client<Connection<T>>> {
@@ -21,7 +24,10 @@ public class Connection<T extends Client<Connection<T>>> {
     private T client;
 
     private ByteBuffer readingBuffer;
+    private ByteBuffer headerBuffer;
+    private WritableBuffer writingData;
     private ByteBuffer[] writingBuffers;
+    private SharedBuffers sharedBuffers;
 
     Connection(AsynchronousSocketChannel channel, ReadHandler<T> readHandler, WriteHandler<T> writeHandler) {
         this.channel = channel;
@@ -39,27 +45,59 @@ public class Connection<T extends Client<Connection<T>>> {
         }
     }
 
+    /**
+     * Waits the next frame header on a small heap buffer of the connection.
+     *
+     * The channel copies the bytes from a temporary direct buffer only when they arrive,
+     * so an idle connection doesn't hold any pooled buffer. The payload is read on a pooled buffer.
+     */
     final void readHeader() {
         if(channel.isOpen()) {
             releaseReadingBuffer();
-            readingBuffer = client.getResourcePool().getHeaderBuffer();
+            headerBuffer = client.getResourcePool().getHeaderBuffer(headerBuffer);
+            readingBuffer = headerBuffer;
             read();
         }
     }
 
     void read(int size) {
         if(channel.isOpen()) {
-            readingBuffer = client.getResourcePool().recycleAndGetNew(readingBuffer, size);
+            ResourcePool resourcePool = client.getResourcePool();
+            ByteBuffer current = readingBuffer == headerBuffer ? null : readingBuffer;
+            if(client.hasFragments()) {
+                readingBuffer = resourcePool.recycleAndGetNew(current, size);
+            } else {
+                readingBuffer = resourcePool.tryRecycleAndGetNew(current, size);
+                if(isNull(readingBuffer)) {
+                    resourcePool.deferRead(size, () -> read(size));
+                    return;
+                }
+            }
             read();
         }
     }
 
-    final boolean write(ByteBuffer[] buffers) {
-        if(!channel.isOpen()) {
-            return false;
-        }
+    /**
+     * Writes the buffers of the data, the data is released when the writing finishes or fails.
+     */
+    final boolean write(WritableBuffer data, ByteBuffer[] buffers) {
+        writingData = data;
         writingBuffers = buffers;
-        return write();
+        if(write()) {
+            return true;
+        }
+        releaseWritingBuffer();
+        return false;
+    }
+
+    final boolean write(SharedBuffers buffers) {
+        sharedBuffers = buffers;
+        writingBuffers = buffers.duplicate();
+        if(write()) {
+            return true;
+        }
+        releaseWritingBuffer();
+        return false;
     }
 
     final boolean write() {
@@ -75,18 +113,21 @@ public class Connection<T extends Client<Connection<T>>> {
     }
 
     private void releaseReadingBuffer() {
-        client.getResourcePool().recycleBuffer(readingBuffer);
+        if(readingBuffer != headerBuffer) {
+            client.getResourcePool().recycleBuffer(readingBuffer);
+        }
         readingBuffer=null;
     }
 
     void releaseWritingBuffer() {
-        if(nonNull(writingBuffers)) {
-            ResourcePool resourcePool = client.getResourcePool();
-            for (ByteBuffer buffer : writingBuffers) {
-                resourcePool.recycleBuffer(buffer);
-            }
-            writingBuffers = null;
+        if(nonNull(sharedBuffers)) {
+            sharedBuffers.release();
+            sharedBuffers = null;
+        } else if(nonNull(writingData)) {
+            writingData.releaseResources();
+            writingData = null;
         }
+        writingBuffers = null;
     }
 
     void close() {
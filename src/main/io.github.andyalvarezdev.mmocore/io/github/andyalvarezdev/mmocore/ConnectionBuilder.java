@@ -2,6 +2,11 @@ package io.github.andyalvarezdev.mmocore;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.nio.ByteOrder;
+import java.util.function.Supplier;
+
+import static java.lang.Math.max;
+import static java.util.Objects.requireNonNull;
 
 /**
  * Builds the {@link ConnectionHandler} responsible to manage all incoming connections.
@@ -100,6 +105,20 @@ public class ConnectionBuilder<T extends Client<Connection<T>>> {
         return this;
     }
 
+    /**
+     * Add a stage to the codec pipeline of the connections.
+     *
+     * The outbound data is encoded by the stages in the order they were added and then encrypted by the client.
+     * The inbound data is decrypted by the client and then decoded by the stages in the reverse order.
+     *
+     * @param factory the factory that creates the stage of each connection
+     * @return this
+     */
+    public ConnectionBuilder<T> addCodec(Supplier<? extends PacketCodec> factory) {
+        config.codecs.add(requireNonNull(factory));
+        return this;
+    }
+
     /**
      * Define the factor of pre-initialized {@link java.nio.ByteBuffer} inside a pool.
      *
@@ -111,6 +130,159 @@ public class ConnectionBuilder<T extends Client<Connection<T>>> {
         return this;
     }
 
+    /**
+     * Adapt the capacity of the buffer pools to the demand.
+     *
+     * At the end of each window a pool grows if more than 5% of the buffers taken were missing,
+     * otherwise it trims the idle buffers above the highest amount of buffers in use during the last 4 windows.
+     * The pools using the buffer arena are not tuned.
+     *
+     * The default value is 1000 milliseconds.
+     *
+     * @param windowMillis the duration of each window in milliseconds, 0 disables the tuning
+     * @return this
+     */
+    public ConnectionBuilder<T> bufferPoolTuning(long windowMillis) {
+        config.bufferPoolTuningWindow = windowMillis;
+        return this;
+    }
+
+    /**
+     * Limits the direct memory held by all the buffer pools, a pool doesn't grow beyond the budget.
+     *
+     * The default value is a quarter of the max heap memory. Unless -XX:MaxDirectMemorySize is set, the JVM allows as much
+     * direct memory as the max heap, so the idle buffers kept by the pools use at most a quarter of it and leave the rest
+     * to the buffers in use and to other users of direct memory. Set the budget explicitly when MaxDirectMemorySize is set.
+     *
+     * @param bytes the max amount of bytes held by the pools, 0 means no limit
+     * @return this
+     */
+    public ConnectionBuilder<T> bufferPoolBudget(long bytes) {
+        config.bufferPoolBudget = bytes;
+        return this;
+    }
+
+    /**
+     * Limits the direct memory of the buffers taken from the resource pool and not recycled yet.
+     *
+     * When a payload doesn't fit on the budget its read is deferred until other buffers are recycled,
+     * the smaller payloads are read first. While the budget is exhausted the packets sent to the clients stay on their queues.
+     *
+     * The budget must hold the buffer of the largest payload accepted, see {@link #frameSizeLimits(int, int)}.
+     * A frame whose payload buffer is larger than the whole budget is counted as malformed and disconnects the connection.
+     *
+     * The default value is 0, so there is no limit.
+     *
+     * @param bytes the max amount of bytes in use
+     * @return this
+     */
+    public ConnectionBuilder<T> directMemoryBudget(long bytes) {
+        config.directMemoryBudget = bytes;
+        return this;
+    }
+
+    /**
+     * Set the limits of the size of the frames received, the header included.
+     *
+     * A frame out of the limits is counted and disconnects the connection immediately, before any buffer is taken for its payload.
+     * The limits are the initial limits of each connection, see {@link Client#setFrameSizeLimits(int, int)}.
+     * The frames written are bounded by the max size too, a larger packet is fragmented when the fragmentation is enabled.
+     *
+     * A min size of 0 or less means the size of the header. A max size of 0 or less means the size of the largest buffer pool,
+     * 64 KB with the default pools, so a frame header can't take a larger buffer unless a larger max size is set.
+     * Both limits are bounded by the frame header format, the default values are 0.
+     *
+     * @param minSize the min size of a frame
+     * @param maxSize the max size of a frame
+     * @return this
+     */
+    public ConnectionBuilder<T> frameSizeLimits(int minSize, int maxSize) {
+        config.minFrameSize = minSize;
+        config.maxFrameSize = maxSize;
+        return this;
+    }
+
+    /**
+     * Limits the inbound packets and payload bytes per second of each client.
+     *
+     * A client exceeding a limit has its next read deferred until the limit is respected again,
+     * the packets already read are executed. A limit of 0 or less means no limit, the default values are 0.
+     *
+     * @param packetsPerSecond the max amount of packets received per second
+     * @param bytesPerSecond the max amount of payload bytes received per second
+     * @return this
+     */
+    public ConnectionBuilder<T> packetRateLimit(int packetsPerSecond, long bytesPerSecond) {
+        config.packetRateLimit = packetsPerSecond;
+        config.byteRateLimit = bytesPerSecond;
+        return this;
+    }
+
+    /**
+     * Limits the inbound packets per second of each client whose {@link ReadablePacket#rateClass()} is rateClass.
+     *
+     * The packets of the class are limited by this limit and by the limit of all packets.
+     *
+     * @param rateClass the rate class of the packets, not negative
+     * @param packetsPerSecond the max amount of packets of the class received per second
+     * @return this
+     */
+    public ConnectionBuilder<T> rateClassLimit(int rateClass, int packetsPerSecond) {
+        if(rateClass < 0) {
+            throw new IllegalArgumentException("The rate class must not be negative");
+        }
+        config.rateClassLimit(rateClass, packetsPerSecond);
+        return this;
+    }
+
+    /**
+     * Set the action taken when the reads of a client are deferred by the rate limits many times in a row.
+     *
+     * The action is taken at each multiple of violations, by default the reads are only deferred.
+     *
+     * @param violations the amount of deferred reads in a row which triggers the action
+     * @param action the action taken
+     * @return this
+     */
+    public ConnectionBuilder<T> rateLimitAction(int violations, RateLimitAction<T> action) {
+        config.readHandler.onRateLimitViolations(max(1, violations), requireNonNull(action));
+        return this;
+    }
+
+    /**
+     * Take the pooled buffers from direct slabs reserved up front instead of allocating each buffer.
+     *
+     * Each buffer pool reserves slabs to hold all its buffers, a slab has at most slabSize bytes.
+     * The slabs are never released, the pools grow by one slab when all buffers are in use and the pool budget has room to it,
+     * see {@link #bufferPoolBudget(long)}. The buffers missing beyond the budget are allocated and released by the GC.
+     * A pool of segment buffers is added when the arena is used.
+     *
+     * The default value is 0, so the arena is not used.
+     *
+     * @param slabSize the max size of each slab
+     * @return this
+     */
+    public ConnectionBuilder<T> bufferArena(int slabSize) {
+        config.arenaSlabSize = slabSize;
+        return this;
+    }
+
+    /**
+     * Write the packets into buffers backed by memory segments of the Foreign Memory API instead of pooled direct buffers.
+     *
+     * The segments are returned to the pool as soon as the packet is sent and are released when the pool is closed.
+     * The memory segments require Java 22, on older runtimes the direct buffers are used.
+     *
+     * The default value is false.
+     *
+     * @param useMemorySegments - true if the memory segments must be used.
+     * @return this
+     */
+    public ConnectionBuilder<T> useMemorySegments(boolean useMemorySegments) {
+        config.useMemorySegments = useMemorySegments;
+        return this;
+    }
+
     /**
      * Define the size of dynamic buffer's segment. A segment is used to increase the Buffer when needed.
      *
@@ -122,6 +294,152 @@ public class ConnectionBuilder<T extends Client<Connection<T>>> {
         return this;
     }
 
+    /**
+     * Define the amount of Strings cached when reading them with {@link ReadablePacket#readInternedString()} or
+     * {@link ReadablePacket#readInternedSizedString()}. The cache avoids the creation of frequently repeated Strings like names.
+     *
+     * The default value is 0, so no String is cached.
+     *
+     * @param size the amount of Strings cached
+     * @return this
+     */
+    public ConnectionBuilder<T> stringCacheSize(int size) {
+        config.stringCacheSize = size;
+        return this;
+    }
+
+    /**
+     * Define the time in milliseconds a snapshot written by {@link WritablePacket#writeSnapshot(Client, int, byte[])}
+     * is used as baseline of the next deltas. A whole snapshot is written when the last acknowledged snapshot is older,
+     * and the states of objects not replicated during this time are discarded.
+     *
+     * The default value is 5000.
+     *
+     * @param timeout the time in milliseconds
+     * @return this
+     */
+    public ConnectionBuilder<T> snapshotTimeout(long timeout) {
+        config.snapshotTimeout = timeout;
+        return this;
+    }
+
+    /**
+     * Set the limits of the snapshots read by {@link ReadablePacket#readSnapshot()}.
+     *
+     * A snapshot larger than maxSize or of a new object when maxObjects objects are already replicated is rejected
+     * before any memory is allocated for it.
+     *
+     * The default values are 64 KB and 16384 objects.
+     *
+     * @param maxSize the max size in bytes of the state of an object
+     * @param maxObjects the max amount of replicated objects received from each connection
+     * @return this
+     */
+    public ConnectionBuilder<T> snapshotLimits(int maxSize, int maxObjects) {
+        config.maxSnapshotSize = maxSize;
+        config.maxSnapshotObjects = maxObjects;
+        return this;
+    }
+
+    /**
+     * Enable the compression of the packets whose payload has at least threshold bytes.
+     *
+     * The compressed packets are marked with a flag in the header, so when the compression is enabled the max frame size
+     * is halved. Only the packets fitting in a single frame are compressed. Both ends of the connection must use the same configuration.
+     *
+     * The default value is 0, so no packet is compressed.
+     *
+     * @param threshold the minimum payload size of a compressed packet
+     * @return this
+     */
+    public ConnectionBuilder<T> compression(int threshold) {
+        return compression(threshold, null);
+    }
+
+    /**
+     * Enable the compression of the packets whose payload has at least threshold bytes using a preset dictionary.
+     *
+     * A dictionary holding the byte sequences frequently found in the packets improves the compression of small packets.
+     *
+     * @see #compression(int)
+     *
+     * @param threshold the minimum payload size of a compressed packet
+     * @param dictionary the preset dictionary or null
+     * @return this
+     */
+    public ConnectionBuilder<T> compression(int threshold, byte[] dictionary) {
+        config.compressionThreshold = threshold;
+        config.compressionDictionary = dictionary;
+        return this;
+    }
+
+    /**
+     * Set the format of the length field in the frame header.
+     *
+     * The length field holds the size of the frame, the header included. Both ends of the connection must use the same configuration.
+     *
+     * The default value is {@link LengthField#SHORT} in little endian order.
+     *
+     * @param lengthField the format of the length field
+     * @param order the byte order of the fixed size length fields
+     * @return this
+     */
+    public ConnectionBuilder<T> frameHeader(LengthField lengthField, ByteOrder order) {
+        config.lengthField = requireNonNull(lengthField);
+        config.headerOrder = requireNonNull(order);
+        return this;
+    }
+
+    /**
+     * Enable the fragmentation of the packets larger than the max frame size.
+     *
+     * Each fragment is sent in its own frame with a flag in the header set in all fragments but the last.
+     * The receiving end reassembles the fragments before handling the packet.
+     * Both ends of the connection must use the same configuration.
+     *
+     * The default value is false, so a packet larger than the max frame size is not sent.
+     *
+     * @param fragmentation true to enable the fragmentation
+     * @return this
+     */
+    public ConnectionBuilder<T> fragmentation(boolean fragmentation) {
+        config.fragmentation = fragmentation;
+        return this;
+    }
+
+    /**
+     * Set the max size of a packet reassembled from fragments.
+     *
+     * A fragment making the reassembled packet larger is counted as a malformed frame and disconnects the connection immediately.
+     *
+     * The default value is 16 MB.
+     *
+     * @param size the max size in bytes of a reassembled packet
+     * @return this
+     */
+    public ConnectionBuilder<T> maxReassembledSize(int size) {
+        config.maxReassembledSize = size;
+        return this;
+    }
+
+    /**
+     * Set the sizes used to send a {@link StreamPacket}.
+     *
+     * Each chunk of the stream is sent in its own packet, so the chunk size plus the fields written by the
+     * stream packet must fit in a frame. The file region is memory-mapped one window at a time.
+     *
+     * The default values are 8192 bytes per chunk and 1 MB per window.
+     *
+     * @param chunkSize the max size of each chunk
+     * @param windowSize the size of the file region mapped at a time
+     * @return this
+     */
+    public ConnectionBuilder<T> streaming(int chunkSize, int windowSize) {
+        config.streamChunkSize = chunkSize;
+        config.streamWindowSize = windowSize;
+        return this;
+    }
+
     /**
      * Builds a new ConnectionHandler based on the options configured.
      *
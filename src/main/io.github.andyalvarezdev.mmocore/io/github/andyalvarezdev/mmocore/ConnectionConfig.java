@@ -1,27 +1,35 @@
 package io.github.andyalvarezdev.mmocore;
 
 import io.github.andyalvarezdev.mmocore.internal.BufferPool;
+import io.github.andyalvarezdev.mmocore.internal.MemoryBudget;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.SocketAddress;
+import java.nio.ByteOrder;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static java.lang.Math.max;
 import static java.lang.Runtime.getRuntime;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 class ConnectionConfig<T extends Client<Connection<T>>> {
 
-    public static final int HEADER_SIZE = 2;
-
     private static final int MINIMUM_POOL_GROUPS = 3;
     private static final Pattern BUFFER_POOL_PROPERTY = Pattern.compile("(bufferPool\\.\\w+?\\.)size", Pattern.CASE_INSENSITIVE);
 
@@ -31,12 +39,37 @@ class ConnectionConfig<T extends Client<Connection<T>>> {
     WriteHandler<T> writeHandler;
     SocketAddress address;
     Map<Integer, BufferPool> bufferPools = new HashMap<>(4);
+    List<Supplier<? extends PacketCodec>> codecs = new ArrayList<>();
 
     float initBufferPoolFactor;
+    long bufferPoolTuningWindow = 1000;
+    long bufferPoolBudget = getRuntime().maxMemory() / 4;
+    MemoryBudget memoryBudget;
+    long directMemoryBudget;
     long shutdownWaitTime = 5000;
+    long snapshotTimeout = 5000;
+    int maxSnapshotSize = 1 << 16;
+    int maxSnapshotObjects = 1 << 14;
     int threadPoolSize;
     boolean useNagle;
     int bufferSegmentSize = 256;
+    int stringCacheSize;
+    int compressionThreshold;
+    byte[] compressionDictionary;
+    LengthField lengthField = LengthField.SHORT;
+    ByteOrder headerOrder = ByteOrder.LITTLE_ENDIAN;
+    boolean fragmentation;
+    int maxReassembledSize = 1 << 24;
+    int arenaSlabSize;
+    boolean useMemorySegments;
+    int streamChunkSize = 8192;
+    int streamWindowSize = 1 << 20;
+    int packetRateLimit;
+    long byteRateLimit;
+    int[] rateClassLimits = new int[0];
+    int minFrameSize;
+    int maxFrameSize;
+    private ScheduledExecutorService scheduler;
 
     ConnectionConfig(SocketAddress address, ClientFactory<T> factory, ReadHandler<T> readHandler) {
         this.address = address;
@@ -44,7 +77,6 @@ class ConnectionConfig<T extends Client<Connection<T>>> {
         this.readHandler = readHandler;
         this.writeHandler = new WriteHandler<>();
         threadPoolSize = max(1, getRuntime().availableProcessors() - 2);
-        bufferPools.put(HEADER_SIZE, new BufferPool(100, HEADER_SIZE));
 
         String systemProperty = System.getProperty("async-mmocore.configurationFile");
         if(nonNull(systemProperty) && !systemProperty.trim().isEmpty()) {
@@ -72,7 +104,27 @@ class ConnectionConfig<T extends Client<Connection<T>>> {
         shutdownWaitTime = parseInt(properties, "shutdownWaitTime", 5) * 1000L;
         threadPoolSize = parseInt(properties, "threadPoolSize", threadPoolSize);
         bufferSegmentSize = parseInt(properties, "bufferSegmentSize", bufferSegmentSize);
+        stringCacheSize = parseInt(properties, "stringCacheSize", stringCacheSize);
+        snapshotTimeout = parseInt(properties, "snapshotTimeout", (int) snapshotTimeout);
+        maxSnapshotSize = parseInt(properties, "snapshot.maxSize", maxSnapshotSize);
+        maxSnapshotObjects = parseInt(properties, "snapshot.maxObjects", maxSnapshotObjects);
+        compressionThreshold = parseInt(properties, "compressionThreshold", compressionThreshold);
         initBufferPoolFactor = parseFloat(properties, "bufferPool.initFactor", 0);
+        bufferPoolTuningWindow = parseLong(properties, "bufferPool.tuningWindow", bufferPoolTuningWindow);
+        bufferPoolBudget = parseLong(properties, "bufferPool.memoryBudget", bufferPoolBudget);
+        directMemoryBudget = parseLong(properties, "directMemoryBudget", directMemoryBudget);
+        arenaSlabSize = parseInt(properties, "bufferPool.arenaSlabSize", arenaSlabSize);
+        useMemorySegments = Boolean.parseBoolean(properties.getProperty("useMemorySegments", String.valueOf(useMemorySegments)));
+        streamChunkSize = parseInt(properties, "streamChunkSize", streamChunkSize);
+        streamWindowSize = parseInt(properties, "streamWindowSize", streamWindowSize);
+        packetRateLimit = parseInt(properties, "rateLimit.packets", packetRateLimit);
+        byteRateLimit = parseLong(properties, "rateLimit.bytes", byteRateLimit);
+        minFrameSize = parseInt(properties, "frame.minSize", minFrameSize);
+        maxFrameSize = parseInt(properties, "frame.maxSize", maxFrameSize);
+        lengthField = parseEnum(properties, "frameHeader", lengthField);
+        headerOrder = "BIG_ENDIAN".equalsIgnoreCase(properties.getProperty("frameHeaderOrder")) ? ByteOrder.BIG_ENDIAN : headerOrder;
+        fragmentation = Boolean.parseBoolean(properties.getProperty("fragmentation", String.valueOf(fragmentation)));
+        maxReassembledSize = parseInt(properties, "fragmentation.maxSize", maxReassembledSize);
 
         properties.stringPropertyNames().forEach(property -> {
             Matcher matcher = BUFFER_POOL_PROPERTY.matcher(property);
@@ -92,6 +144,14 @@ class ConnectionConfig<T extends Client<Connection<T>>> {
         }
     }
 
+    private long parseLong(Properties properties, String propertyName, long defaultValue) {
+        try{
+            return Long.parseLong(properties.getProperty(propertyName));
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
     private float parseFloat(Properties properties, String propertyName, float defaultValue) {
         try{
             return Float.parseFloat(properties.getProperty(propertyName));
@@ -100,6 +160,14 @@ class ConnectionConfig<T extends Client<Connection<T>>> {
         }
     }
 
+    private <E extends Enum<E>> E parseEnum(Properties properties, String propertyName, E defaultValue) {
+        try{
+            return Enum.valueOf(defaultValue.getDeclaringClass(), properties.getProperty(propertyName).trim().toUpperCase());
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
     public void newBufferGroup(int groupSize, int bufferSize) {
         if(!bufferPools.containsKey(bufferSize)) {
             bufferPools.put(bufferSize, new BufferPool(groupSize, bufferSize));
@@ -108,12 +176,54 @@ class ConnectionConfig<T extends Client<Connection<T>>> {
 
     public ConnectionConfig<T> complete() {
         completeBuffersPool();
-        if(initBufferPoolFactor > 0) {
-            bufferPools.values().forEach(pool -> pool.initialize(initBufferPoolFactor));
+        if(isNull(memoryBudget)) {
+            memoryBudget = new MemoryBudget(bufferPoolBudget);
+        }
+        if(arenaSlabSize > 0) {
+            newBufferGroup(100, bufferSegmentSize);
+            bufferPools.values().parallelStream().forEach(pool -> pool.useArena(arenaSlabSize, memoryBudget));
+        } else {
+            if(initBufferPoolFactor > 0) {
+                bufferPools.values().forEach(pool -> pool.initialize(initBufferPoolFactor));
+            }
+            long window = TimeUnit.MILLISECONDS.toNanos(bufferPoolTuningWindow);
+            bufferPools.values().forEach(pool -> pool.useTuning(window, memoryBudget));
         }
         return this;
     }
 
+    void rateClassLimit(int rateClass, int packetsPerSecond) {
+        if(rateClass >= rateClassLimits.length) {
+            rateClassLimits = Arrays.copyOf(rateClassLimits, rateClass + 1);
+        }
+        rateClassLimits[rateClass] = packetsPerSecond;
+    }
+
+    boolean hasRateLimits() {
+        return packetRateLimit > 0 || byteRateLimit > 0 || Arrays.stream(rateClassLimits).anyMatch(limit -> limit > 0);
+    }
+
+    /**
+     * The scheduler is created on the first use, its single daemon thread only runs the deferred tasks.
+     */
+    synchronized ScheduledExecutorService scheduler() {
+        if(isNull(scheduler)) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "MMO-scheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    synchronized void shutdownScheduler() {
+        if(nonNull(scheduler)) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
     private void completeBuffersPool() {
         int missingPools = MINIMUM_POOL_GROUPS - bufferPools.size();
 
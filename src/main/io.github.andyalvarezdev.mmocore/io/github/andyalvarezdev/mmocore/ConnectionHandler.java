@@ -59,6 +59,8 @@ public final class ConnectionHandler<T extends Client<Connection<T>>> extends Th
         } catch (Exception e) {
             LOGGER.warn(e.getMessage(), e);
         }
+        config.shutdownScheduler();
+        resourcePool.close();
     }
 
     /**
@@ -72,6 +74,13 @@ public final class ConnectionHandler<T extends Client<Connection<T>>> extends Th
         closeConnection();
     }
 
+    /**
+     * @return the resource pool shared by the connections, which exposes the metrics of the buffer pools.
+     */
+    public ResourcePool getResourcePool() {
+        return resourcePool;
+    }
+
     private class AcceptConnectionHandler implements CompletionHandler<AsynchronousSocketChannel, Void> {
         @Override
         public void completed(AsynchronousSocketChannel clientChannel, Void attachment) {
@@ -0,0 +1,51 @@
+package io.github.andyalvarezdev.mmocore;
+
+/**
+ * The format of the length field in the header of each frame.
+ *
+ * The length field holds the size of the whole frame, the header included.
+ */
+public enum LengthField {
+
+    /**
+     * 16 bits unsigned integer, frames up to 65535 bytes.
+     */
+    SHORT(2, 0xFFFFL),
+
+    /**
+     * 24 bits unsigned integer, frames up to 16 MB.
+     */
+    MEDIUM(3, 0xFFFFFFL),
+
+    /**
+     * 32 bits unsigned integer.
+     */
+    INT(4, 0xFFFFFFFFL),
+
+    /**
+     * Variable length integer with 7 bits per byte, from 1 to 5 bytes.
+     */
+    VAR_INT(5, 0xFFFFFFFFL);
+
+    private final int maxSize;
+    private final long maxValue;
+
+    LengthField(int maxSize, long maxValue) {
+        this.maxSize = maxSize;
+        this.maxValue = maxValue;
+    }
+
+    /**
+     * @return the max amount of bytes of the length field.
+     */
+    public int maxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the max value the length field can hold.
+     */
+    public long maxValue() {
+        return maxValue;
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.andyalvarezdev.mmocore;
+
+/**
+ * A stage of the codec pipeline of a connection.
+ *
+ * The outbound data passes through the stages in the order they were added and then through {@link Client#encrypt(Buffer, int, int)}.
+ * The inbound data passes through {@link Client#decrypt(Buffer, int, int)} and then through the stages in the reverse order.
+ *
+ * A new instance is created for each connection, so the stage can hold the connection's state.
+ * The data must be transformed in-place, a stage that changes the size of the data must update the buffer's limit.
+ */
+public interface PacketCodec {
+
+    /**
+     * Encode the outbound data in-place.
+     *
+     * @param data - the data to be encoded
+     * @param offset - the initial index to be encoded
+     * @param size - the length of data to be encoded
+     *
+     * @return if the data was encoded, otherwise the data is not sent.
+     */
+    boolean encode(Buffer data, int offset, int size);
+
+    /**
+     * Decode the inbound data in-place.
+     *
+     * @param data - the data to be decoded
+     * @param offset - the initial index to be decoded
+     * @param size - the length of data to be decoded
+     *
+     * @return if the data was decoded, otherwise the data is discarded.
+     */
+    boolean decode(Buffer data, int offset, int size);
+}
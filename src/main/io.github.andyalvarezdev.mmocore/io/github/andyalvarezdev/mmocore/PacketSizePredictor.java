@@ -0,0 +1,127 @@
+package io.github.andyalvarezdev.mmocore;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Predicts the size of the buffer needed to write the packets of a class.
+ *
+ * The sizes written are counted in a histogram with 4 buckets per power of two. The counts are halved every
+ * {@value #DECAY_INTERVAL} packets, so the old sizes lose weight and the prediction follows the changes of the packets.
+ * The predicted size is the upper bound of the bucket holding the {@value #TARGET_PERCENTILE} percentile,
+ * thus a rare large packet doesn't increase the buffer of the others.
+ *
+ * The predictor also counts how often the first buffer chosen was too small, so more buffers were chained,
+ * or too large, at least twice the size written.
+ */
+public final class PacketSizePredictor {
+
+    static final double TARGET_PERCENTILE = 0.95;
+    static final int DECAY_INTERVAL = 1024;
+
+    private static final int MIN_EXPONENT = 3;
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Integer.SIZE - 1 - MIN_EXPONENT) * SUB_BUCKETS;
+    private static final int PREDICTION_INTERVAL = 64;
+
+    private final AtomicIntegerArray counts = new AtomicIntegerArray(BUCKETS);
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicLong undersized = new AtomicLong();
+    private final AtomicLong oversized = new AtomicLong();
+    private volatile int predictedSize;
+
+    PacketSizePredictor() { }
+
+    /**
+     * @return the size predicted to the next packet or 0 if no packet was written yet.
+     */
+    public int predictedSize() {
+        return predictedSize;
+    }
+
+    /**
+     * @return the amount of packets written.
+     */
+    public long samples() {
+        return samples.get();
+    }
+
+    /**
+     * @return the amount of packets larger than the first buffer.
+     */
+    public long undersized() {
+        return undersized.get();
+    }
+
+    /**
+     * @return the amount of packets written on a predicted buffer at least twice larger than the packet.
+     */
+    public long oversized() {
+        return oversized.get();
+    }
+
+    /**
+     * Records the size of a packet written.
+     *
+     * @param size the size written
+     * @param capacity the capacity of the first buffer
+     * @param predicted if the first buffer was chosen by the prediction
+     */
+    void record(int size, int capacity, boolean predicted) {
+        if(size > capacity) {
+            undersized.incrementAndGet();
+        } else if(predicted && capacity >= (long) size << 1) {
+            oversized.incrementAndGet();
+        }
+
+        counts.incrementAndGet(bucket(size));
+        long count = samples.incrementAndGet();
+        if(count % DECAY_INTERVAL == 0) {
+            decay();
+        }
+        if(count % PREDICTION_INTERVAL == 0 || (count & (count - 1)) == 0) {
+            predictedSize = predict();
+        }
+    }
+
+    private void decay() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.getAndUpdate(i, count -> count >> 1);
+        }
+    }
+
+    private int predict() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        long target = (long) Math.ceil(total * TARGET_PERCENTILE);
+        long accumulated = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            accumulated += counts.get(i);
+            if(accumulated >= target && accumulated > 0) {
+                return upperBound(i);
+            }
+        }
+        return predictedSize;
+    }
+
+    static int bucket(int size) {
+        int value = Math.max(size, 1 << MIN_EXPONENT);
+        int exponent = Integer.SIZE - 1 - Integer.numberOfLeadingZeros(value);
+        int subBucket = (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - MIN_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    static int upperBound(int bucket) {
+        int exponent = bucket / SUB_BUCKETS + MIN_EXPONENT;
+        long bound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS + 1) << (exponent - SUB_BUCKET_BITS);
+        return (int) Math.min(Integer.MAX_VALUE, bound);
+    }
+
+    @Override
+    public String toString() {
+        return "PacketSizePredictor{predictedSize=" + predictedSize + ", samples=" + samples + ", undersized=" + undersized + ", oversized=" + oversized + "}";
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.andyalvarezdev.mmocore;
+
+/**
+ * The action taken when a client repeatedly exceeds the inbound rate limits.
+ *
+ * @param <T> the type of the client
+ */
+@FunctionalInterface
+public interface RateLimitAction<T extends Client<Connection<T>>> {
+
+    /**
+     * Called from the IO thread after the reads of the client were throttled many times in a row.
+     *
+     * The reads of the client are still deferred after the action, the action may close the client to stop them.
+     *
+     * @param client the client exceeding the rate limits
+     * @param violations the amount of reads throttled in a row
+     */
+    void onViolation(T client, int violations);
+}
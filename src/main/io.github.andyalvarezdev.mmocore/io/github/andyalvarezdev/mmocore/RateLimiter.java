@@ -0,0 +1,62 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.TokenBucket;
+
+import static java.lang.Math.max;
+import static java.util.Objects.nonNull;
+
+/**
+ * The token buckets of the inbound data of a client.
+ *
+ * The frames and packets are always accepted, the buckets go into debt and the next read waits until all debts are paid.
+ */
+final class RateLimiter {
+
+    private final TokenBucket packets;
+    private final TokenBucket bytes;
+    private final TokenBucket[] rateClasses;
+    private long delay;
+    private int violations;
+
+    RateLimiter(int packetsPerSecond, long bytesPerSecond, int[] rateClassLimits) {
+        long now = System.nanoTime();
+        packets = packetsPerSecond > 0 ? new TokenBucket(packetsPerSecond, now) : null;
+        bytes = bytesPerSecond > 0 ? new TokenBucket(bytesPerSecond, now) : null;
+        rateClasses = new TokenBucket[rateClassLimits.length];
+        for (int i = 0; i < rateClassLimits.length; i++) {
+            if(rateClassLimits[i] > 0) {
+                rateClasses[i] = new TokenBucket(rateClassLimits[i], now);
+            }
+        }
+    }
+
+    void onFrame(int size) {
+        if(nonNull(bytes)) {
+            delay = max(delay, bytes.take(size, System.nanoTime()));
+        }
+    }
+
+    void onPacket(int rateClass) {
+        long now = System.nanoTime();
+        if(nonNull(packets)) {
+            delay = max(delay, packets.take(1, now));
+        }
+        if(rateClass >= 0 && rateClass < rateClasses.length && nonNull(rateClasses[rateClass])) {
+            delay = max(delay, rateClasses[rateClass].take(1, now));
+        }
+    }
+
+    /**
+     * @return the nanoseconds the next read must wait, each read waiting counts as a violation.
+     */
+    long takeDelay() {
+        long nextDelay = delay;
+        delay = 0;
+        violations = nextDelay > 0 ? violations + 1 : 0;
+        return nextDelay;
+    }
+
+    int violations() {
+        return violations;
+    }
+}
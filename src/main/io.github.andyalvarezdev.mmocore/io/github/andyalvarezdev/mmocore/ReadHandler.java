@@ -1,12 +1,13 @@
 package io.github.andyalvarezdev.mmocore;
 
+import io.github.andyalvarezdev.mmocore.internal.DynamicPacketBuffer;
+import io.github.andyalvarezdev.mmocore.internal.FrameHeader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.nio.channels.CompletionHandler;
 
-import static io.github.andyalvarezdev.mmocore.ConnectionConfig.HEADER_SIZE;
 import static java.util.Objects.nonNull;
 
 class ReadHandler<T extends Client<Connection<T>>> implements CompletionHandler<Integer, T> {
@@ -15,12 +16,19 @@ class ReadHandler<T extends Client<Connection<T>>> implements CompletionHandler<
 
     private final PacketHandler<T> packetHandler;
     private final PacketExecutor<T> executor;
+    private RateLimitAction<T> rateLimitAction;
+    private int rateLimitViolations;
 
     ReadHandler(PacketHandler<T> packetHandler, PacketExecutor<T> executor) {
         this.packetHandler = packetHandler;
         this.executor =  executor;
     }
 
+    void onRateLimitViolations(int violations, RateLimitAction<T> action) {
+        this.rateLimitViolations = violations;
+        this.rateLimitAction = action;
+    }
+
     @Override
     public void completed(Integer bytesRead, T client) {
         if(!client.isConnected()) {
@@ -47,31 +55,102 @@ class ReadHandler<T extends Client<Connection<T>>> implements CompletionHandler<
 
     private void handleHeader(T client) {
         ByteBuffer buffer = client.getConnection().getReadingBuffer();
-        buffer.flip();
-        int dataSize = Short.toUnsignedInt(buffer.getShort()) - HEADER_SIZE;
-        client.readPayload(dataSize);
+        FrameHeader frameHeader = client.getResourcePool().getFrameHeader();
+        try {
+            if(frameHeader.needsMore(buffer)) {
+                client.resumeHeader();
+                return;
+            }
+            int headerSize = buffer.position();
+            buffer.flip();
+            long header = frameHeader.read(buffer);
+            long frameSize = frameHeader.frameSize(header);
+            if(!client.acceptsFrameSize(frameSize, headerSize)) {
+                throw new IllegalArgumentException("Invalid frame size " + frameSize);
+            }
+            int payloadSize = (int) frameSize - headerSize;
+            if(!client.getResourcePool().fitsDirectMemoryBudget(payloadSize)) {
+                throw new IllegalArgumentException("Payload size " + payloadSize + " larger than the direct memory budget");
+            }
+            client.readPayload(payloadSize, frameHeader.isCompressed(header), frameHeader.isFragment(header));
+        } catch (IllegalArgumentException e) {
+            reject(client, e.getMessage());
+        }
+    }
+
+    private void reject(T client, String reason) {
+        LOGGER.debug("Malformed frame from {}: {}", client, reason);
+        client.getResourcePool().onMalformedFrame();
+        client.abort();
     }
 
     private void handlePayload(T client) {
         ByteBuffer buffer = client.getConnection().getReadingBuffer();
         buffer.flip();
-        parseAndExecutePacket(client, buffer);
-        client.read();
+        client.limitFrame(buffer.remaining());
+        if(client.isFragmentPayload()) {
+            if(!appendFragment(client, buffer)) {
+                return;
+            }
+        } else if(client.hasFragments()) {
+            if(!appendFragment(client, buffer)) {
+                return;
+            }
+            parseAndExecuteFragmentedPacket(client);
+        } else {
+            parseAndExecutePacket(client, buffer);
+        }
+        readNext(client);
+    }
+
+    private boolean appendFragment(T client, ByteBuffer buffer) {
+        if(client.appendFragment(buffer)) {
+            return true;
+        }
+        reject(client, "Reassembled packet larger than " + client.getResourcePool().getMaxReassembledSize());
+        return false;
+    }
+
+    private void readNext(T client) {
+        long delay = client.takeReadDelay();
+        if(delay == 0) {
+            client.read();
+            return;
+        }
+        int violations = client.getRateLimitViolations();
+        LOGGER.debug("Deferring the read of {} for {} ns", client, delay);
+        if(nonNull(rateLimitAction) && violations % rateLimitViolations == 0) {
+            rateLimitAction.onViolation(client, violations);
+        }
+        client.getResourcePool().schedule(() -> {
+            if(client.isConnected()) {
+                client.read();
+            }
+        }, delay);
+    }
+
+    private void parseAndExecuteFragmentedPacket(T client) {
+        DynamicPacketBuffer buffer = client.takeFragments();
+        try {
+            decodeAndExecute(client, buffer);
+        } finally {
+            buffer.releaseResources();
+        }
     }
 
     private void parseAndExecutePacket(T client, ByteBuffer incomingBuffer) {
+        decodeAndExecute(client, ReadableBuffer.of(incomingBuffer));
+    }
+
+    private void decodeAndExecute(T client, ReadableBuffer buffer) {
         LOGGER.debug("Trying to parse data");
 
         try {
-            ReadableBuffer buffer = ReadableBuffer.of(incomingBuffer);
-            boolean decrypted = client.decrypt(buffer, 0, buffer.remaining());
-
-            if (decrypted) {
-                ReadablePacket<T> packet = packetHandler.handlePacket(buffer, client);
-                LOGGER.debug("Data parsed to packet {}", packet);
-                if (nonNull(packet)) {
-                    packet.init(client, buffer);
-                    execute(packet);
+            if (client.decode(buffer)) {
+                if(client.isCompressedPayload()) {
+                    parseAndExecuteCompressedPacket(client, buffer);
+                } else {
+                    parseAndExecutePacket(client, buffer);
                 }
             }
         } catch (Exception e) {
@@ -79,6 +158,28 @@ class ReadHandler<T extends Client<Connection<T>>> implements CompletionHandler<
         }
     }
 
+    private void parseAndExecuteCompressedPacket(T client, ReadableBuffer buffer) {
+        ResourcePool resourcePool = client.getResourcePool();
+        int size = buffer.readVarInt();
+        int offset = buffer.limit() - buffer.remaining();
+        ByteBuffer payload = resourcePool.getCompressor().decompress(buffer, offset, buffer.remaining(), size, resourcePool);
+        try {
+            parseAndExecutePacket(client, ReadableBuffer.of(payload));
+        } finally {
+            resourcePool.recycleBuffer(payload);
+        }
+    }
+
+    private void parseAndExecutePacket(T client, ReadableBuffer buffer) {
+        ReadablePacket<T> packet = packetHandler.handlePacket(buffer, client);
+        LOGGER.debug("Data parsed to packet {}", packet);
+        if (nonNull(packet)) {
+            client.limitPacket(packet.rateClass());
+            packet.init(client, buffer);
+            execute(packet);
+        }
+    }
+
     private void execute(ReadablePacket<T> packet) {
         if(packet.read()) {
             LOGGER.debug("packet {} was read from client {}", packet, packet.client);
@@ -21,6 +21,15 @@ public interface ReadableBuffer extends Buffer {
 
     char readChar();
 
+    /**
+     * Reads as many 16 bit chars as the given length.
+     *
+     * @param dst the char array which will be filled with the data.
+     * @param offset starts to fill the char array from the given offset.
+     * @param length the amount of chars to be read.
+     */
+    void readChars(char[] dst, int offset, int length);
+
     /**
      * Reads <B>int</B> from the buffer. <BR>
      * 32bit integer (00 00 00 00)
@@ -30,6 +39,29 @@ public interface ReadableBuffer extends Buffer {
 
     float readFloat();
 
+    /**
+     * Reads a bit field from the buffer. <BR>
+     * Consecutive bit fields are packed into the same bytes, starting from the least significant bit.
+     *
+     * @param bits the amount of bits to be read, from 1 to 64
+     * @return the bits read as an unsigned value
+     */
+    long readBits(int bits);
+
+    /**
+     * Reads variable length <B>int</B> from the buffer. <BR>
+     * 7 bits per byte, from 1 to 5 bytes
+     * @return int read
+     */
+    int readVarInt();
+
+    /**
+     * Reads variable length <B>long</B> from the buffer. <BR>
+     * 7 bits per byte, from 1 to 10 bytes
+     * @return long read
+     */
+    long readVarLong();
+
     long readLong();
 
     double readDouble();
@@ -38,6 +70,42 @@ public interface ReadableBuffer extends Buffer {
 
     void readBytes(byte[] dst, int offset, int length);
 
+    /**
+     * Reads as many <B>short</B> values as the given length.
+     *
+     * @param dst the array which will be filled with the data.
+     * @param offset starts to fill the array from the given offset.
+     * @param length the amount of values to be read.
+     */
+    void readShorts(short[] dst, int offset, int length);
+
+    /**
+     * Reads as many <B>int</B> values as the given length.
+     *
+     * @param dst the array which will be filled with the data.
+     * @param offset starts to fill the array from the given offset.
+     * @param length the amount of values to be read.
+     */
+    void readInts(int[] dst, int offset, int length);
+
+    /**
+     * Reads as many <B>long</B> values as the given length.
+     *
+     * @param dst the array which will be filled with the data.
+     * @param offset starts to fill the array from the given offset.
+     * @param length the amount of values to be read.
+     */
+    void readLongs(long[] dst, int offset, int length);
+
+    /**
+     * Reads as many <B>float</B> values as the given length.
+     *
+     * @param dst the array which will be filled with the data.
+     * @param offset starts to fill the array from the given offset.
+     * @param length the amount of values to be read.
+     */
+    void readFloats(float[] dst, int offset, int length);
+
     int remaining();
 
     static ReadableBuffer of(ByteBuffer buffer) {
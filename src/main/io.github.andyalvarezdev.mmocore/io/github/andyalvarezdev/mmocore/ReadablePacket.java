@@ -1,8 +1,11 @@
 package io.github.andyalvarezdev.mmocore;
 
-import java.nio.charset.StandardCharsets;
+import io.github.andyalvarezdev.mmocore.internal.StringCache;
+
+import java.util.Arrays;
 
 import static java.lang.Byte.toUnsignedInt;
+import static java.util.Objects.nonNull;
 
 /**
  * This class represents a Packet received from the client.
@@ -13,6 +16,9 @@ import static java.lang.Byte.toUnsignedInt;
  */
 public abstract class ReadablePacket<T extends Client<Connection<T>>> implements Runnable {
 
+    private static final ThreadLocal<char[]> CHARS = ThreadLocal.withInitial(() -> new char[64]);
+    private static final int MAX_THREAD_CHARS = 4096;
+
     private ReadableBuffer buffer;
     protected T client;
 
@@ -142,6 +148,115 @@ public abstract class ReadablePacket<T extends Client<Connection<T>>> implements
         return buffer.readLong();
     }
 
+    /**
+     * Reads a bit field from the buffer. <BR>
+     * Consecutive bit fields are packed into the same bytes. Any other read starts at the next byte.
+     *
+     * @param bits the amount of bits to be read, from 1 to 64
+     * @return the bits read as an unsigned value
+     */
+    protected final long readBits(final int bits) {
+        checkBits(bits, Long.SIZE);
+        return buffer.readBits(bits);
+    }
+
+    /**
+     * Reads a single bit from the buffer.
+     * @return true if the bit is set
+     */
+    protected final boolean readBit() {
+        return buffer.readBits(1) != 0;
+    }
+
+    /**
+     * Reads a bit mask from the buffer, a bit for each flag.
+     *
+     * @param count the amount of flags, from 1 to 64
+     * @return the mask read, the first flag is the least significant bit
+     */
+    protected final long readBitMask(final int count) {
+        return readBits(count);
+    }
+
+    /**
+     * Reads a <B>float</B> quantized into the given amount of bits.
+     *
+     * @param min the minimum value of the range
+     * @param max the maximum value of the range
+     * @param bits the amount of bits to be read, from 1 to 32
+     * @return float read
+     */
+    protected final float readQuantizedFloat(final float min, final float max, final int bits) {
+        checkBits(bits, Integer.SIZE);
+        long steps = (1L << bits) - 1;
+        return (float) (min + (double) buffer.readBits(bits) * (max - min) / steps);
+    }
+
+    private static void checkBits(int bits, int maxBits) {
+        if(bits < 1 || bits > maxBits) {
+            throw new IllegalArgumentException("The amount of bits must be between 1 and " + maxBits + ": " + bits);
+        }
+    }
+
+    /**
+     * Reads variable length <B>int</B> from the buffer. <BR>
+     * 7 bits per byte, from 1 to 5 bytes
+     * @return int read
+     */
+    protected final int readVarInt() {
+        return buffer.readVarInt();
+    }
+
+    /**
+     * Reads variable length <B>long</B> from the buffer. <BR>
+     * 7 bits per byte, from 1 to 10 bytes
+     * @return long read
+     */
+    protected final long readVarLong() {
+        return buffer.readVarLong();
+    }
+
+    /**
+     * Reads zigzag encoded variable length <B>int</B> from the buffer. <BR>
+     * 7 bits per byte, from 1 to 5 bytes
+     * @return int read
+     */
+    protected final int readZigZagInt() {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads zigzag encoded variable length <B>long</B> from the buffer. <BR>
+     * 7 bits per byte, from 1 to 10 bytes
+     * @return long read
+     */
+    protected final long readZigZagLong() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads the state of a replicated object written by {@link WritablePacket#writeSnapshot(Client, int, byte[])}. <BR>
+     * The snapshot must be acknowledged to the sender with {@link WritablePacket#writeSnapshotAck(Snapshot)}.
+     *
+     * @return the whole state of the object
+     * @throws IllegalStateException if the snapshot is a delta of an unknown state or of too many objects
+     * @throws IllegalArgumentException if the size of the state is out of the limits
+     */
+    protected final Snapshot readSnapshot() {
+        return client.getSnapshotHistory().read(buffer);
+    }
+
+    /**
+     * Reads the acknowledgement of a snapshot written by {@link WritablePacket#writeSnapshotAck(Snapshot)}. <BR>
+     * The acknowledged snapshot becomes the baseline of the next deltas of the object.
+     */
+    protected final void readSnapshotAck() {
+        int objectId = readVarInt();
+        client.getSnapshotBaselines().acknowledge(objectId, readVarInt());
+    }
+
     /**
      * Reads <B>double</B> from the buffer. <BR>
      * 64bit double precision float (00 00 00 00 00 00 00 00)
@@ -151,17 +266,111 @@ public abstract class ReadablePacket<T extends Client<Connection<T>>> implements
         return buffer.readDouble();
     }
 
+    /**
+     * Reads as many <B>short</B> values as the length of the array.
+     * @param dst : the array which will be filled with the data.
+     */
+    protected final void readShorts(final short[] dst) {
+        buffer.readShorts(dst, 0, dst.length);
+    }
+
+    /**
+     * Reads as many <B>short</B> values as the given length (len). Starts to fill the
+     * array from the given offset to <B>offset</B> + <B>len</B>.
+     * @param dst : the array which will be filled with the data.
+     * @param offset : starts to fill the array from the given offset.
+     * @param length : the given length of values to be read.
+     */
+    protected final void readShorts(final short[] dst, final int offset, final int length) {
+        buffer.readShorts(dst, offset, length);
+    }
+
+    /**
+     * Reads as many <B>int</B> values as the length of the array.
+     * @param dst : the array which will be filled with the data.
+     */
+    protected final void readInts(final int[] dst) {
+        buffer.readInts(dst, 0, dst.length);
+    }
+
+    /**
+     * Reads as many <B>int</B> values as the given length (len). Starts to fill the
+     * array from the given offset to <B>offset</B> + <B>len</B>.
+     * @param dst : the array which will be filled with the data.
+     * @param offset : starts to fill the array from the given offset.
+     * @param length : the given length of values to be read.
+     */
+    protected final void readInts(final int[] dst, final int offset, final int length) {
+        buffer.readInts(dst, offset, length);
+    }
+
+    /**
+     * Reads as many <B>long</B> values as the length of the array.
+     * @param dst : the array which will be filled with the data.
+     */
+    protected final void readLongs(final long[] dst) {
+        buffer.readLongs(dst, 0, dst.length);
+    }
+
+    /**
+     * Reads as many <B>long</B> values as the given length (len). Starts to fill the
+     * array from the given offset to <B>offset</B> + <B>len</B>.
+     * @param dst : the array which will be filled with the data.
+     * @param offset : starts to fill the array from the given offset.
+     * @param length : the given length of values to be read.
+     */
+    protected final void readLongs(final long[] dst, final int offset, final int length) {
+        buffer.readLongs(dst, offset, length);
+    }
+
+    /**
+     * Reads as many <B>float</B> values as the length of the array.
+     * @param dst : the array which will be filled with the data.
+     */
+    protected final void readFloats(final float[] dst) {
+        buffer.readFloats(dst, 0, dst.length);
+    }
+
+    /**
+     * Reads as many <B>float</B> values as the given length (len). Starts to fill the
+     * array from the given offset to <B>offset</B> + <B>len</B>.
+     * @param dst : the array which will be filled with the data.
+     * @param offset : starts to fill the array from the given offset.
+     * @param length : the given length of values to be read.
+     */
+    protected final void readFloats(final float[] dst, final int offset, final int length) {
+        buffer.readFloats(dst, offset, length);
+    }
+
     /**
      * Reads <B>String</B> from the buffer.
      * @return String read
      */
     protected final String readString()  {
-        StringBuilder builder = new StringBuilder();
+        return readString(null);
+    }
+
+    /**
+     * Reads <B>String</B> from the buffer.
+     * The String is taken from the client's String cache when it was read before.
+     *
+     * @return String read
+     */
+    protected final String readInternedString() {
+        return readString(client.getResourcePool().getStringCache());
+    }
+
+    private String readString(StringCache cache) {
+        char[] chars = CHARS.get();
+        int length = 0;
         char c;
         while((c = readChar()) != '\000') {
-            builder.append(c);
+            if(length == chars.length) {
+                chars = grow(chars, length << 1);
+            }
+            chars[length++] = c;
         }
-        return builder.toString();
+        return toString(chars, length, cache);
     }
 
     /**
@@ -169,10 +378,60 @@ public abstract class ReadablePacket<T extends Client<Connection<T>>> implements
      * @return String read
      */
     protected final String readSizedString() {
-        int size = readShort() * 2;
-        byte[] data = new byte[size];
-        readBytes(data);
-        return new String(data, 0, size, StandardCharsets.UTF_16LE);
+        return readSizedString(null);
+    }
+
+    /**
+     * Reads a predefined length <B>String</B> from the buffer.
+     * The String is taken from the client's String cache when it was read before.
+     *
+     * @return String read
+     */
+    protected final String readInternedSizedString() {
+        return readSizedString(client.getResourcePool().getStringCache());
+    }
+
+    private String readSizedString(StringCache cache) {
+        int length = Short.toUnsignedInt(readShort());
+        char[] chars = charsWithCapacity(length);
+        buffer.readChars(chars, 0, length);
+        return toString(chars, length, cache);
+    }
+
+    /**
+     * The chars kept by each thread grow up to {@value MAX_THREAD_CHARS}, a longer string is read into a temporary array,
+     * so a peer sending long strings doesn't make each thread hold their chars indefinitely.
+     */
+    private static char[] charsWithCapacity(int capacity) {
+        char[] chars = CHARS.get();
+        return chars.length < capacity ? grow(chars, capacity) : chars;
+    }
+
+    private static char[] grow(char[] chars, int capacity) {
+        char[] newChars = Arrays.copyOf(chars, capacity);
+        if(capacity <= MAX_THREAD_CHARS) {
+            CHARS.set(newChars);
+        }
+        return newChars;
+    }
+
+    private static String toString(char[] chars, int length, StringCache cache) {
+        if(length == 0) {
+            return "";
+        }
+        if(nonNull(cache)) {
+            return cache.get(chars, 0, length);
+        }
+        return new String(chars, 0, length);
+    }
+
+    /**
+     * The rate class groups the packets limited together, see {@link ConnectionBuilder#rateClassLimit(int, int)}.
+     *
+     * @return the rate class of the packet or -1 if the packet is limited only by the limits of all packets.
+     */
+    protected int rateClass() {
+        return -1;
     }
 
     public T getClient() {
@@ -1,39 +1,121 @@
 package io.github.andyalvarezdev.mmocore;
 
 import io.github.andyalvarezdev.mmocore.internal.BufferPool;
+import io.github.andyalvarezdev.mmocore.internal.Compressor;
+import io.github.andyalvarezdev.mmocore.internal.FrameHeader;
+import io.github.andyalvarezdev.mmocore.internal.MemoryBudget;
+import io.github.andyalvarezdev.mmocore.internal.SegmentBuffers;
+import io.github.andyalvarezdev.mmocore.internal.StringCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Runtime.getRuntime;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
+import static java.util.stream.Collectors.toList;
 
 public class ResourcePool {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ResourcePool.class);
+    private static final PacketCodec[] NO_CODECS = new PacketCodec[0];
+    private static final int DEFAULT_MAX_FRAME_SIZE = 1 << 16;
 
     private final ConnectionConfig<?> config;
     private final int[] bufferSizes;
+    private final StringCache stringCache;
+    private final Compressor compressor;
+    private final FrameHeader frameHeader;
+    private final SegmentBuffers segmentBuffers;
+    private final MemoryBudget directMemory;
+    private final Queue<DeferredRead> deferredReads = new PriorityBlockingQueue<>(11, Comparator.comparingInt((DeferredRead read) -> read.bufferSize).thenComparingLong(read -> read.sequence));
+    private final Queue<Runnable> deferredWrites = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger deferred = new AtomicInteger();
+    private final AtomicLong deferredSequence = new AtomicLong();
+    private final AtomicBoolean resumeScheduled = new AtomicBoolean();
+    private final LongAdder malformedFrames = new LongAdder();
 
     private ResourcePool(ConnectionConfig<?> config) {
         this.config = config;
         bufferSizes = config.bufferPools.keySet().stream().sorted().mapToInt(Integer::intValue).toArray();
+        stringCache = config.stringCacheSize > 0 ? new StringCache(config.stringCacheSize) : null;
+        boolean compression = config.compressionThreshold > 0;
+        frameHeader = new FrameHeader(config.lengthField, config.headerOrder, compression, config.fragmentation, frameSizeLimit());
+        compressor = compression ? new Compressor(config.compressionThreshold, config.compressionDictionary, frameHeader.maxFrameSize(),
+                maxPacketSize(), getRuntime().availableProcessors()) : null;
+        segmentBuffers = config.useMemorySegments ? createSegmentBuffers() : null;
+        directMemory = new MemoryBudget(config.directMemoryBudget);
     }
 
-    ByteBuffer getHeaderBuffer() {
-        return getSizedBuffer(ConnectionConfig.HEADER_SIZE);
+    /**
+     * @return the max size of a packet received, either a single frame or a packet reassembled from fragments.
+     */
+    private int maxPacketSize() {
+        return config.fragmentation ? config.maxReassembledSize : getMaxFrameSize();
+    }
+
+    /**
+     * Without a configured max frame size the frames are bounded by the largest buffer pool, so a single header
+     * can't make the pool allocate a buffer as large as the header format allows.
+     */
+    private int frameSizeLimit() {
+        if(config.maxFrameSize > 0) {
+            return config.maxFrameSize;
+        }
+        return bufferSizes.length > 0 ? bufferSizes[bufferSizes.length - 1] : DEFAULT_MAX_FRAME_SIZE;
+    }
+
+    private static SegmentBuffers createSegmentBuffers() {
+        SegmentBuffers segmentBuffers = SegmentBuffers.create();
+        if(isNull(segmentBuffers)) {
+            LOGGER.warn("The memory segments require Java 22, the direct buffers are used instead");
+        }
+        return segmentBuffers;
+    }
+
+    /**
+     * Gets a heap buffer to read the frame header, a pending read on a heap buffer doesn't hold any direct memory.
+     *
+     * @param previous the header buffer of the connection or null to create a new one
+     */
+    ByteBuffer getHeaderBuffer(ByteBuffer previous) {
+        ByteBuffer buffer = isNull(previous) ? ByteBuffer.allocate(frameHeader.reservedSize()).order(ByteOrder.LITTLE_ENDIAN) : previous.clear();
+        return buffer.limit(frameHeader.minSize());
     }
 
     public ByteBuffer getSegmentBuffer() {
         return getSizedBuffer(config.bufferSegmentSize);
     }
 
+    int getSegmentSize() {
+        return config.bufferSegmentSize;
+    }
+
     public ByteBuffer getBuffer(int size) {
         return getSizedBuffer(determineBufferSize(size));
     }
 
+    /**
+     * @return the size bounded by the largest buffer pool, so a larger buffer is made of pooled buffers instead of a single allocation.
+     */
+    public int boundedBufferSize(int size) {
+        return bufferSizes.length > 0 ? min(size, bufferSizes[bufferSizes.length - 1]) : size;
+    }
+
     ByteBuffer recycleAndGetNew(ByteBuffer buffer, int newSize) {
         int bufferSize = determineBufferSize(newSize);
         if(nonNull(buffer)) {
@@ -45,6 +127,23 @@ public class ResourcePool {
         return getSizedBuffer(bufferSize).limit(newSize);
     }
 
+    /**
+     * Same as {@link #recycleAndGetNew(ByteBuffer, int)}, unless a new buffer would exceed the direct memory budget.
+     *
+     * @return the buffer or null if the budget is exceeded, then the given buffer is recycled.
+     */
+    ByteBuffer tryRecycleAndGetNew(ByteBuffer buffer, int newSize) {
+        int bufferSize = determineBufferSize(newSize);
+        if(nonNull(buffer) && buffer.clear().limit() == bufferSize) {
+            return buffer.limit(newSize);
+        }
+        recycleBuffer(buffer);
+        if(directMemory.reserved() + bufferSize > directMemory.limit()) {
+            return null;
+        }
+        return getSizedBuffer(bufferSize).limit(newSize);
+    }
+
     private ByteBuffer getSizedBuffer(int size) {
         BufferPool pool = config.bufferPools.get(size);
         ByteBuffer buffer = null;
@@ -54,6 +153,7 @@ public class ResourcePool {
         if(isNull(buffer)) {
             buffer = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
         }
+        directMemory.forceReserve(1, buffer.capacity());
         return buffer;
     }
 
@@ -68,15 +168,220 @@ public class ResourcePool {
     }
 
     public void recycleBuffer(ByteBuffer buffer) {
-        if (nonNull(buffer)) {
+        if (nonNull(buffer) && !buffer.isReadOnly()) {
+            directMemory.release(1, buffer.capacity());
             BufferPool pool = config.bufferPools.get(buffer.capacity());
             if(nonNull(pool)) {
                 pool.recycle(buffer);
             }
+            if(deferred.get() > 0) {
+                scheduleResume();
+            }
+        }
+    }
+
+    /**
+     * A payload whose buffer is larger than the whole budget could never be read, its read would stay deferred forever.
+     *
+     * @return true if the buffer of a payload of the size fits on the direct memory budget once the other buffers are recycled.
+     */
+    boolean fitsDirectMemoryBudget(int size) {
+        long limit = directMemory.limit();
+        return limit == Long.MAX_VALUE || (size <= limit && determineBufferSize(size) <= limit);
+    }
+
+    boolean isDirectMemoryExhausted() {
+        return directMemory.reserved() >= directMemory.limit();
+    }
+
+    /**
+     * Defers a read until the direct memory budget has room to its buffer.
+     *
+     * The smaller reads are resumed first, so the heaviest connections wait longer.
+     */
+    void deferRead(int size, Runnable read) {
+        deferredReads.offer(new DeferredRead(determineBufferSize(size), deferredSequence.getAndIncrement(), read));
+        deferred.incrementAndGet();
+        scheduleResume();
+    }
+
+    /**
+     * Defers the writes of a client until the direct memory in use is below the budget.
+     */
+    void deferWrite(Runnable write) {
+        deferredWrites.offer(write);
+        deferred.incrementAndGet();
+        scheduleResume();
+    }
+
+    /**
+     * The deferred operations are resumed on the scheduler thread, never inline on the thread recycling a buffer,
+     * which may be in the middle of writing another packet.
+     */
+    private void scheduleResume() {
+        if(resumeScheduled.compareAndSet(false, true)) {
+            config.scheduler().execute(this::resumeDeferred);
+        }
+    }
+
+    private void resumeDeferred() {
+        resumeScheduled.set(false);
+        do {
+            Runnable write;
+            while (!isDirectMemoryExhausted() && nonNull(write = deferredWrites.poll())) {
+                deferred.decrementAndGet();
+                resume(write);
+            }
+            DeferredRead read;
+            while (nonNull(read = deferredReads.peek()) && directMemory.reserved() + read.bufferSize <= directMemory.limit() && deferredReads.remove(read)) {
+                deferred.decrementAndGet();
+                resume(read.resume);
+            }
+        } while (hasResumable());
+    }
+
+    private void resume(Runnable operation) {
+        try {
+            operation.run();
+        } catch (Exception e) {
+            LOGGER.warn("Failed to resume a deferred operation", e);
+        }
+    }
+
+    private boolean hasResumable() {
+        DeferredRead read = deferredReads.peek();
+        return (!deferredWrites.isEmpty() && !isDirectMemoryExhausted()) || (nonNull(read) && directMemory.reserved() + read.bufferSize <= directMemory.limit());
+    }
+
+    /**
+     * @return the amount of bytes of the direct buffers taken from this pool and not recycled yet.
+     */
+    public long getDirectMemoryInUse() {
+        return directMemory.reserved();
+    }
+
+    /**
+     * @return the amount of reads and writes waiting the direct memory budget.
+     */
+    public int getDeferredOperations() {
+        return deferred.get();
+    }
+
+    /**
+     * @return the metrics of the buffer pools, ordered by buffer size.
+     */
+    public List<BufferPoolMetrics> getBufferPoolMetrics() {
+        return config.bufferPools.keySet().stream().sorted().map(size -> new BufferPoolMetrics(config.bufferPools.get(size))).collect(toList());
+    }
+
+    /**
+     * @return the amount of bytes reserved by the buffer pools from the memory budget.
+     */
+    public long getReservedPoolMemory() {
+        return config.memoryBudget.reserved();
+    }
+
+    StringCache getStringCache() {
+        return stringCache;
+    }
+
+    PacketCodec[] createCodecs() {
+        if(config.codecs.isEmpty()) {
+            return NO_CODECS;
+        }
+        PacketCodec[] codecs = new PacketCodec[config.codecs.size()];
+        for (int i = 0; i < codecs.length; i++) {
+            codecs[i] = config.codecs.get(i).get();
+        }
+        return codecs;
+    }
+
+    FrameHeader getFrameHeader() {
+        return frameHeader;
+    }
+
+    Compressor getCompressor() {
+        return compressor;
+    }
+
+    SegmentBuffers getSegmentBuffers() {
+        return segmentBuffers;
+    }
+
+    int getStreamChunkSize() {
+        return config.streamChunkSize;
+    }
+
+    int getStreamWindowSize() {
+        return config.streamWindowSize;
+    }
+
+    int getMinFrameSize() {
+        return max(frameHeader.minSize(), config.minFrameSize);
+    }
+
+    int getMaxFrameSize() {
+        return frameHeader.frameSizeLimit();
+    }
+
+    int getMaxReassembledSize() {
+        return config.maxReassembledSize;
+    }
+
+    void onMalformedFrame() {
+        malformedFrames.increment();
+    }
+
+    /**
+     * @return the amount of connections disconnected by a malformed frame header or a reassembled packet too large.
+     */
+    public long getMalformedFrames() {
+        return malformedFrames.sum();
+    }
+
+    long getSnapshotTimeout() {
+        return config.snapshotTimeout;
+    }
+
+    int getMaxSnapshotSize() {
+        return config.maxSnapshotSize;
+    }
+
+    int getMaxSnapshotObjects() {
+        return config.maxSnapshotObjects;
+    }
+
+    RateLimiter createRateLimiter() {
+        return config.hasRateLimits() ? new RateLimiter(config.packetRateLimit, config.byteRateLimit, config.rateClassLimits) : null;
+    }
+
+    void schedule(Runnable task, long delayNanos) {
+        config.scheduler().schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void close() {
+        if(nonNull(segmentBuffers)) {
+            try {
+                segmentBuffers.close();
+            } catch (IllegalStateException e) {
+                LOGGER.warn("The memory segments are still in use: {}", e.getMessage());
+            }
         }
     }
 
     static ResourcePool initialize(ConnectionConfig<?> config) {
         return new ResourcePool(config);
     }
-}
\ No newline at end of file
+
+    private static final class DeferredRead {
+        private final int bufferSize;
+        private final long sequence;
+        private final Runnable resume;
+
+        private DeferredRead(int bufferSize, long sequence, Runnable resume) {
+            this.bufferSize = bufferSize;
+            this.sequence = sequence;
+            this.resume = resume;
+        }
+    }
+}
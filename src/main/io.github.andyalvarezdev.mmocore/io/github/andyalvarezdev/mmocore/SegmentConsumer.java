@@ -0,0 +1,23 @@
+package io.github.andyalvarezdev.mmocore;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Consumes a contiguous region of a {@link Buffer}.
+ *
+ * @see Buffer#forEachSegment(int, int, SegmentConsumer)
+ */
+@FunctionalInterface
+public interface SegmentConsumer {
+
+    /**
+     * Consumes the region between the segment's position and limit.
+     *
+     * The segment is in little endian order and the changes on it are made on the Buffer.
+     * Its position and limit are restored after this method returns, so the segment must not be kept.
+     *
+     * @param segment - the ByteBuffer holding the region
+     * @param index - the index of the Buffer corresponding to the segment's position
+     */
+    void accept(ByteBuffer segment, int index);
+}
@@ -0,0 +1,40 @@
+package io.github.andyalvarezdev.mmocore;
+
+/**
+ * The state of a replicated object received through {@link ReadablePacket#readSnapshot()}.
+ *
+ * The data is kept as baseline of the next deltas, so it must not be modified.
+ */
+public final class Snapshot {
+
+    private final int objectId;
+    private final int sequence;
+    private final byte[] data;
+
+    public Snapshot(int objectId, int sequence, byte[] data) {
+        this.objectId = objectId;
+        this.sequence = sequence;
+        this.data = data;
+    }
+
+    /**
+     * @return the identifier of the replicated object.
+     */
+    public int getObjectId() {
+        return objectId;
+    }
+
+    /**
+     * @return the sequence that must be acknowledged through {@link WritablePacket#writeSnapshotAck(Snapshot)}.
+     */
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return the whole state of the replicated object.
+     */
+    public byte[] getData() {
+        return data;
+    }
+}
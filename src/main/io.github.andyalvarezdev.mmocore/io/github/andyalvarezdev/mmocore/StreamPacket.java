@@ -0,0 +1,122 @@
+package io.github.andyalvarezdev.mmocore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Objects.isNull;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A packet streaming a region of a file to a client in chunks.
+ *
+ * The region is memory-mapped one window at a time, each chunk is a slice of the window copied straight into the
+ * packet's buffer, so no chunk goes through the heap. The {@link #write(Client)} method is called once per chunk
+ * and must call {@link #writeChunk()} to write the chunk data after any field identifying the chunk.
+ *
+ * Only one chunk of the stream is written at a time and the packets sent to the client are written before the next
+ * chunk, so the stream never delays the normal traffic by more than one chunk.
+ *
+ * @param <T> - The Type of client the stream is sent to.
+ */
+public abstract class StreamPacket<T extends Client<Connection<T>>> extends WritablePacket<T> {
+
+    private final FileChannel channel;
+    private final long position;
+    private final long size;
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private MappedByteBuffer window;
+    private long windowOffset;
+    private long sent;
+    private ByteBuffer chunk;
+    private long chunkOffset;
+
+    /**
+     * Creates a stream of a file region.
+     *
+     * The channel is not closed by the stream, it should be closed on {@link #onStreamEnd(boolean)}.
+     *
+     * @param channel - the channel of the file to be streamed, opened for reading.
+     * @param position - the position of the region in the file.
+     * @param size - the size of the region.
+     */
+    protected StreamPacket(FileChannel channel, long position, long size) {
+        this.channel = requireNonNull(channel);
+        this.position = position;
+        this.size = size;
+    }
+
+    /**
+     * Write the data of the current chunk to the buffer.
+     */
+    protected final void writeChunk() {
+        writeBuffer(chunk.duplicate());
+    }
+
+    /**
+     * @return the offset of the current chunk in the streamed region.
+     */
+    protected final long chunkOffset() {
+        return chunkOffset;
+    }
+
+    /**
+     * @return the size of the current chunk.
+     */
+    protected final int chunkSize() {
+        return chunk.remaining();
+    }
+
+    /**
+     * @return if the current chunk is the last one of the stream.
+     */
+    protected final boolean isLastChunk() {
+        return chunkOffset + chunk.remaining() >= size;
+    }
+
+    /**
+     * @return the size of the streamed region.
+     */
+    protected final long size() {
+        return size;
+    }
+
+    /**
+     * Handles the end of the stream.
+     *
+     * @param completed - true if all chunks were sent, false if the stream was cancelled or failed.
+     */
+    protected void onStreamEnd(boolean completed) {
+        // nothing to be done
+    }
+
+    boolean nextChunk(int chunkSize, int windowSize) throws IOException {
+        if(sent >= size) {
+            return false;
+        }
+        int length = (int) min(chunkSize, size - sent);
+        if(isNull(window) || sent + length > windowOffset + window.capacity()) {
+            window = null;
+            windowOffset = sent;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position + sent, min(max(windowSize, chunkSize), size - sent));
+        }
+        int index = (int) (sent - windowOffset);
+        chunk = window.duplicate().position(index).limit(index + length);
+        chunkOffset = sent;
+        sent += length;
+        return true;
+    }
+
+    void finish(boolean completed) {
+        if(finished.compareAndSet(false, true)) {
+            window = null;
+            chunk = null;
+            onStreamEnd(completed);
+            release();
+        }
+    }
+}
@@ -1,27 +1,37 @@
 package io.github.andyalvarezdev.mmocore;
 
+import io.github.andyalvarezdev.mmocore.internal.SegmentBuffers;
 import io.github.andyalvarezdev.mmocore.internal.WritableBuffer;
 
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
-import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
 /**
  * This class represents a Packet that can be sent to clients.
  *
- * All data sent must have a header with 2 bytes and an optional payload.
+ * All data sent must have a header and an optional payload.
  *
- * The first and second bytes is a 16 bits integer holding the size of the packet.
+ * By default the header is a 16 bits integer holding the size of the packet, see {@link LengthField}.
  */
 public abstract class WritablePacket<T extends Client<Connection<T>>> {
 
-    private static final Map<Class<?>, Integer> packetInfo = new ConcurrentHashMap<>();
+    private static final ClassValue<PacketSizePredictor> SIZE_PREDICTORS = new ClassValue<>() {
+        @Override
+        protected PacketSizePredictor computeValue(Class<?> type) {
+            return new PacketSizePredictor();
+        }
+    };
     private static final ThreadLocal<WritableBuffer> THREAD_LOCAL = new ThreadLocal<>();
+    @SuppressWarnings("rawtypes")
+    private static final AtomicIntegerFieldUpdater<WritablePacket> PENDING_WRITES = AtomicIntegerFieldUpdater.newUpdater(WritablePacket.class, "pendingWrites");
+    private static final int RECYCLED = -1;
+
+    private WritablePacketPool<?> pool;
+    private volatile int pendingWrites;
 
     protected WritablePacket() { }
 
@@ -37,6 +47,18 @@ public abstract class WritablePacket<T extends Client<Connection<T>>> {
         THREAD_LOCAL.get().writeBytes(bytes);
     }
 
+    /**
+     * Write the remaining bytes of the ByteBuffer to the buffer.
+     *
+     * @param bytes to be written
+     */
+    protected final void writeBuffer(final ByteBuffer bytes) {
+        if(isNull(bytes)) {
+            return;
+        }
+        THREAD_LOCAL.get().writeBytes(bytes);
+    }
+
     /**
      * Write a<B>byte</B> to the buffer. <BR>
      * 8bit integer (00)
@@ -125,6 +147,141 @@ public abstract class WritablePacket<T extends Client<Connection<T>>> {
     }
 
 
+    /**
+     * Write <B>int</B> to the buffer using a variable length. <BR>
+     * Small positive values take less bytes, negative values always take 5 bytes.
+     * 7 bits per byte, from 1 to 5 bytes
+     * @param value to be written
+     */
+    protected final void writeVarInt(final int value) {
+        THREAD_LOCAL.get().writeVarInt(value);
+    }
+
+    /**
+     * Write <B>long</B> to the buffer using a variable length. <BR>
+     * Small positive values take less bytes, negative values always take 10 bytes.
+     * 7 bits per byte, from 1 to 10 bytes
+     * @param value to be written
+     */
+    protected final void writeVarLong(final long value) {
+        THREAD_LOCAL.get().writeVarLong(value);
+    }
+
+    /**
+     * Write <B>int</B> to the buffer using the zigzag encoding and a variable length. <BR>
+     * Values with small magnitude take less bytes, even the negative ones.
+     * 7 bits per byte, from 1 to 5 bytes
+     * @param value to be written
+     */
+    protected final void writeZigZagInt(final int value) {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Write <B>long</B> to the buffer using the zigzag encoding and a variable length. <BR>
+     * Values with small magnitude take less bytes, even the negative ones.
+     * 7 bits per byte, from 1 to 10 bytes
+     * @param value to be written
+     */
+    protected final void writeZigZagLong(final long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Write the state of a replicated object to the buffer. <BR>
+     * Only the bytes changed since the last state acknowledged by the client are written,
+     * the whole state is written when there is no acknowledged state.
+     *
+     * The receiver reads it with {@link ReadablePacket#readSnapshot()} and must acknowledge it
+     * with {@link #writeSnapshotAck(Snapshot)}.
+     *
+     * @param client the client the packet is sent to
+     * @param objectId the identifier of the replicated object
+     * @param state the whole state of the object
+     */
+    protected final void writeSnapshot(final T client, final int objectId, final byte[] state) {
+        client.getSnapshotBaselines().write(THREAD_LOCAL.get(), objectId, state);
+    }
+
+    /**
+     * Write the acknowledgement of a snapshot to the buffer. <BR>
+     * The sender reads it with {@link ReadablePacket#readSnapshotAck()}, then the snapshot is used as baseline
+     * of the next deltas of the object.
+     *
+     * @param snapshot the snapshot received
+     */
+    protected final void writeSnapshotAck(final Snapshot snapshot) {
+        writeVarInt(snapshot.getObjectId());
+        writeVarInt(snapshot.getSequence());
+    }
+
+    /**
+     * Write the lower <B>bits</B> of the value to the buffer. <BR>
+     * Consecutive bit fields are packed into the same bytes. Any other write starts at the next byte.
+     *
+     * @param value holding the bits to be written
+     * @param bits the amount of bits to be written, from 1 to 64
+     */
+    protected final void writeBits(final long value, final int bits) {
+        checkBits(bits, Long.SIZE);
+        THREAD_LOCAL.get().writeBits(value, bits);
+    }
+
+    /**
+     * Write <B>boolean</B> to the buffer as a single bit. <BR>
+     * Consecutive bit fields are packed into the same bytes. Any other write starts at the next byte.
+     *
+     * @param value to be written
+     */
+    protected final void writeBit(final boolean value) {
+        THREAD_LOCAL.get().writeBits(value ? 1 : 0, 1);
+    }
+
+    /**
+     * Write a bit for each flag to the buffer. <BR>
+     * It's useful to mark which optional fields are present in the packet.
+     *
+     * @param flags to be written
+     */
+    protected final void writeBitMask(final boolean... flags) {
+        if(isNull(flags)) {
+            return;
+        }
+        WritableBuffer buffer = THREAD_LOCAL.get();
+        for (int i = 0; i < flags.length; i += Long.SIZE) {
+            int bits = min(Long.SIZE, flags.length - i);
+            long mask = 0;
+            for (int j = 0; j < bits; j++) {
+                if(flags[i + j]) {
+                    mask |= 1L << j;
+                }
+            }
+            buffer.writeBits(mask, bits);
+        }
+    }
+
+    /**
+     * Write <B>float</B> to the buffer quantized into the given amount of bits. <BR>
+     * The value is clamped to the range [min, max] and the precision is (max - min) / (2^bits - 1).
+     *
+     * @param value to be written
+     * @param min the minimum value of the range
+     * @param max the maximum value of the range
+     * @param bits the amount of bits to be written, from 1 to 32
+     */
+    protected final void writeQuantizedFloat(final float value, final float min, final float max, final int bits) {
+        checkBits(bits, Integer.SIZE);
+        float clamped = Math.max(min, Math.min(max, value));
+        long steps = (1L << bits) - 1;
+        THREAD_LOCAL.get().writeBits(Math.round((double) (clamped - min) / (max - min) * steps), bits);
+    }
+
+    private static void checkBits(int bits, int maxBits) {
+        if(bits < 1 || bits > maxBits) {
+            throw new IllegalArgumentException("The amount of bits must be between 1 and " + maxBits + ": " + bits);
+        }
+    }
+
     /**
      * Write <B>float</B> to the buffer. <BR>
      *  32bit float point number (00 00 00 00)
@@ -143,6 +300,54 @@ public abstract class WritablePacket<T extends Client<Connection<T>>> {
         THREAD_LOCAL.get().writeLong(value);
     }
 
+    /**
+     * Write <B>short[]</B> to the buffer. <BR>
+     * 16bit integer array (00 00 ...)
+     * @param values to be written
+     */
+    protected final void writeShorts(final short... values) {
+        if(isNull(values)) {
+            return;
+        }
+        THREAD_LOCAL.get().writeShorts(values, 0, values.length);
+    }
+
+    /**
+     * Write <B>int[]</B> to the buffer. <BR>
+     * 32bit integer array (00 00 00 00 ...)
+     * @param values to be written
+     */
+    protected final void writeInts(final int... values) {
+        if(isNull(values)) {
+            return;
+        }
+        THREAD_LOCAL.get().writeInts(values, 0, values.length);
+    }
+
+    /**
+     * Write <B>long[]</B> to the buffer. <BR>
+     * 64bit integer array (00 00 00 00 00 00 00 00 ...)
+     * @param values to be written
+     */
+    protected final void writeLongs(final long... values) {
+        if(isNull(values)) {
+            return;
+        }
+        THREAD_LOCAL.get().writeLongs(values, 0, values.length);
+    }
+
+    /**
+     * Write <B>float[]</B> to the buffer. <BR>
+     * 32bit float point number array (00 00 00 00 ...)
+     * @param values to be written
+     */
+    protected final void writeFloats(final float... values) {
+        if(isNull(values)) {
+            return;
+        }
+        THREAD_LOCAL.get().writeFloats(values, 0, values.length);
+    }
+
     /**
      * Write <B>char</B> to the buffer.<BR>
      * 16 bit char
@@ -164,12 +369,12 @@ public abstract class WritablePacket<T extends Client<Connection<T>>> {
             writeChar('\000');
             return;
         }
-        writeStringWithCharset(text);
+        writeChars(text);
         writeChar('\000');
     }
 
-    private void writeStringWithCharset(CharSequence text) {
-        writeBytes(text.toString().getBytes(StandardCharsets.UTF_16LE));
+    private void writeChars(CharSequence text) {
+        THREAD_LOCAL.get().writeChars(text);
     }
 
     /**
@@ -181,39 +386,80 @@ public abstract class WritablePacket<T extends Client<Connection<T>>> {
     protected final void writeSizedString(final CharSequence text) {
         if(nonNull(text) && text.length() > 0) {
             writeShort(text.length());
-            writeStringWithCharset(text);
+            writeChars(text);
         } else {
             writeShort(0);
         }
     }
 
     WritableBuffer writeData(T client) {
-        WritableBuffer buffer = choosePacketBuffer(client);
+        ResourcePool resourcePool = client.getResourcePool();
+        PacketSizePredictor predictor = sizePredictor();
+        int predictedSize = predictor.predictedSize();
+        boolean predicted = predictedSize > resourcePool.getSegmentSize();
+        SegmentBuffers segmentBuffers = resourcePool.getSegmentBuffers();
+        WritableBuffer buffer;
+        int capacity;
+        if(nonNull(segmentBuffers)) {
+            capacity = predicted ? predictedSize : resourcePool.getSegmentSize();
+            buffer = segmentBuffers.newBuffer(capacity);
+        } else {
+            ByteBuffer first = predicted ? resourcePool.getBuffer(resourcePool.boundedBufferSize(predictedSize)) : resourcePool.getSegmentBuffer();
+            capacity = first.capacity();
+            buffer = WritableBuffer.dynamicOf(first, resourcePool);
+        }
+        THREAD_LOCAL.set(buffer);
 
-        buffer.position(ConnectionConfig.HEADER_SIZE);
+        buffer.position(resourcePool.getFrameHeader().reservedSize());
         if(write(client)) {
             buffer.mark();
+            predictor.record(buffer.limit(), capacity, predicted);
             return buffer;
         }
         return null;
     }
 
-    private WritableBuffer choosePacketBuffer(T client) {
-        ByteBuffer buffer;
-        if(packetInfo.containsKey(getClass())) {
-            buffer = client.getResourcePool().getBuffer(packetInfo.get(getClass()));
-        } else {
-            buffer = client.getResourcePool().getSegmentBuffer();
+    PacketSizePredictor sizePredictor() {
+        return SIZE_PREDICTORS.get(getClass());
+    }
+
+    /**
+     * Gets the statistics of the buffers used to write the packets of a class.
+     *
+     * @param packetClass - the class of the packets
+     * @return the size predictor of the class
+     */
+    public static PacketSizePredictor sizePredictorOf(Class<?> packetClass) {
+        return SIZE_PREDICTORS.get(packetClass);
+    }
+
+    /**
+     * Writes the packet's payload into a new array, the buffer of a packet been written is preserved.
+     *
+     * @return the payload or null if the packet was not written
+     */
+    byte[] serialize(T client) {
+        WritableBuffer previous = THREAD_LOCAL.get();
+        ResourcePool resourcePool = client.getResourcePool();
+        WritableBuffer buffer = WritableBuffer.dynamicOf(resourcePool.getSegmentBuffer(), resourcePool);
+        THREAD_LOCAL.set(buffer);
+        try {
+            if(!write(client)) {
+                return null;
+            }
+            buffer.mark();
+            byte[] payload = new byte[buffer.limit()];
+            buffer.forEachSegment(0, payload.length, (segment, index) -> segment.get(payload, index, segment.remaining()));
+            return payload;
+        } finally {
+            buffer.releaseResources();
+            THREAD_LOCAL.set(previous);
         }
-        WritableBuffer writable = WritableBuffer.dynamicOf(buffer, client.getResourcePool());
-        THREAD_LOCAL.set(writable);
-        return writable;
     }
 
-    void writeHeaderAndRecord(int header) {
-        WritableBuffer buffer = THREAD_LOCAL.get();
-        buffer.writeShort(0, (short) header);
-        packetInfo.compute(getClass(), (k, v) -> isNull(v) ? header : max(v, header));
+    void replaceData(WritableBuffer buffer) {
+        THREAD_LOCAL.get().releaseResources();
+        THREAD_LOCAL.set(buffer);
     }
 
     WritableBuffer releaseData() {
@@ -222,6 +468,39 @@ public abstract class WritablePacket<T extends Client<Connection<T>>> {
         return buffer;
     }
 
+    void acquiredFrom(WritablePacketPool<?> pool) {
+        this.pool = pool;
+        pendingWrites = 0;
+    }
+
+    void retain() {
+        if(isNull(pool)) {
+            return;
+        }
+        int pending;
+        do {
+            pending = pendingWrites;
+            if(pending == RECYCLED) {
+                throw new IllegalStateException("The packet " + this + " was already recycled");
+            }
+        } while (!PENDING_WRITES.compareAndSet(this, pending, pending + 1));
+    }
+
+    void release() {
+        if(nonNull(pool) && PENDING_WRITES.decrementAndGet(this) == 0 && PENDING_WRITES.compareAndSet(this, 0, RECYCLED)) {
+            pool.recycle(this);
+        }
+    }
+
+    /**
+     * Clears the packet's state before it returns to its {@link WritablePacketPool}.
+     *
+     * Packets acquired from a pool must override this method to release any reference held.
+     */
+    protected void reset() {
+        // no state to be cleared
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName();
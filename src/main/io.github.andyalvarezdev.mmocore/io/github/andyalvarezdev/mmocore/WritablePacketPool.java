@@ -0,0 +1,62 @@
+package io.github.andyalvarezdev.mmocore;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.Supplier;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A pool of reusable {@link WritablePacket} instances of the same class.
+ *
+ * A packet acquired from the pool is recycled automatically after it has been serialized to the client it was sent to.
+ * Thus, the packet must not be changed after it is sent and it must be sent to only one client.
+ *
+ * Before a packet returns to the pool its {@link WritablePacket#reset()} method is called.
+ *
+ * @param <P> - The Type of packet held by the pool.
+ */
+public final class WritablePacketPool<P extends WritablePacket<?>> {
+
+    private final Queue<P> packets;
+    private final Supplier<P> factory;
+
+    /**
+     * Creates a pool of packets.
+     *
+     * @param factory - the factory responsible to create a new packet when the pool is empty.
+     * @param maxSize - the max amount of idle packets held by the pool.
+     */
+    public WritablePacketPool(Supplier<P> factory, int maxSize) {
+        this.factory = requireNonNull(factory);
+        this.packets = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    /**
+     * Takes an idle packet from the pool or creates a new one if there is no idle packet.
+     *
+     * @return a packet ready to be filled and sent.
+     */
+    public P acquire() {
+        P packet = packets.poll();
+        if(isNull(packet)) {
+            packet = factory.get();
+        }
+        packet.acquiredFrom(this);
+        return packet;
+    }
+
+    /**
+     * @return the amount of idle packets in the pool.
+     */
+    public int idle() {
+        return packets.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    void recycle(WritablePacket<?> packet) {
+        packet.reset();
+        packets.offer((P) packet);
+    }
+}
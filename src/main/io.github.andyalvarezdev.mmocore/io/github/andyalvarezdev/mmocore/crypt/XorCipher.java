@@ -0,0 +1,159 @@
+package io.github.andyalvarezdev.mmocore.crypt;
+
+import io.github.andyalvarezdev.mmocore.Buffer;
+import io.github.andyalvarezdev.mmocore.PacketCodec;
+import io.github.andyalvarezdev.mmocore.SegmentConsumer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The rolling xor cipher used by many game protocols.
+ *
+ * Each byte is xor'ed with the key and with the previous encrypted byte, the key has 16 bytes and
+ * after each packet the int at key's index 8 is increased by the packet's size.
+ * Inbound and outbound data have independent keys, both initialized with the same key.
+ * Each direction keeps its own state, so a packet can be encrypted while another is decrypted.
+ *
+ * The data is processed 8 bytes at a time through the segments of the {@link Buffer}.
+ */
+public final class XorCipher implements PacketCodec {
+
+    private static final int KEY_SIZE = 16;
+    private static final long BYTE_BROADCAST = 0x0101010101010101L;
+
+    private final KeyStream encrypter = new Encrypter();
+    private final KeyStream decrypter = new Decrypter();
+
+    /**
+     * Creates a cipher with the key.
+     *
+     * @param key - the key with 16 bytes
+     * @throws IllegalArgumentException if the key doesn't have 16 bytes
+     */
+    public XorCipher(byte[] key) {
+        if(key.length != KEY_SIZE) {
+            throw new IllegalArgumentException("The key must have " + KEY_SIZE + " bytes");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(key).order(ByteOrder.LITTLE_ENDIAN);
+        decrypter.key[0] = encrypter.key[0] = buffer.getLong();
+        decrypter.key[1] = encrypter.key[1] = buffer.getLong();
+    }
+
+    @Override
+    public boolean encode(Buffer data, int offset, int size) {
+        encrypt(data, offset, size);
+        return true;
+    }
+
+    @Override
+    public boolean decode(Buffer data, int offset, int size) {
+        decrypt(data, offset, size);
+        return true;
+    }
+
+    /**
+     * Encrypt the data in-place using the outbound key.
+     *
+     * @param data - the data to be encrypted
+     * @param offset - the initial index to be encrypted
+     * @param size - the length of data to be encrypted
+     */
+    public void encrypt(Buffer data, int offset, int size) {
+        encrypter.process(data, offset, size);
+    }
+
+    /**
+     * Decrypt the data in-place using the inbound key.
+     *
+     * @param data - the data to be decrypted
+     * @param offset - the initial index to be decrypted
+     * @param size - the length of data to be decrypted
+     */
+    public void decrypt(Buffer data, int offset, int size) {
+        decrypter.process(data, offset, size);
+    }
+
+    /**
+     * The key and the chaining state of one direction, a direction processes one packet at a time.
+     */
+    private abstract static class KeyStream implements SegmentConsumer {
+
+        final long[] key = new long[2];
+        int start;
+        int last;
+
+        void process(Buffer data, int offset, int size) {
+            start = offset;
+            last = 0;
+            data.forEachSegment(offset, size, this);
+            key[1] = key[1] & 0xFFFFFFFF00000000L | (((int) key[1] + size) & 0xFFFFFFFFL);
+        }
+
+        int keyByte(int index) {
+            return (int) (key[(index >> 3) & 1] >>> ((index & 7) << 3)) & 0xFF;
+        }
+    }
+
+    private static final class Encrypter extends KeyStream {
+
+        @Override
+        public void accept(ByteBuffer segment, int index) {
+            boolean reverse = segment.order() != ByteOrder.LITTLE_ENDIAN;
+            int i = index - start;
+            int position = segment.position();
+            int end = segment.limit();
+            for (; position < end && (i & 7) != 0; position++, i++) {
+                last = (segment.get(position) ^ keyByte(i) ^ last) & 0xFF;
+                segment.put(position, (byte) last);
+            }
+            for (; position + Long.BYTES <= end; position += Long.BYTES, i += Long.BYTES) {
+                long word = segment.getLong(position);
+                if(reverse) {
+                    word = Long.reverseBytes(word);
+                }
+                word ^= key[(i >> 3) & 1];
+                word ^= word << 8;
+                word ^= word << 16;
+                word ^= word << 32;
+                word ^= last * BYTE_BROADCAST;
+                last = (int) (word >>> 56);
+                segment.putLong(position, reverse ? Long.reverseBytes(word) : word);
+            }
+            for (; position < end; position++, i++) {
+                last = (segment.get(position) ^ keyByte(i) ^ last) & 0xFF;
+                segment.put(position, (byte) last);
+            }
+        }
+    }
+
+    private static final class Decrypter extends KeyStream {
+
+        @Override
+        public void accept(ByteBuffer segment, int index) {
+            boolean reverse = segment.order() != ByteOrder.LITTLE_ENDIAN;
+            int i = index - start;
+            int position = segment.position();
+            int end = segment.limit();
+            for (; position < end && (i & 7) != 0; position++, i++) {
+                int encrypted = segment.get(position) & 0xFF;
+                segment.put(position, (byte) (encrypted ^ keyByte(i) ^ last));
+                last = encrypted;
+            }
+            for (; position + Long.BYTES <= end; position += Long.BYTES, i += Long.BYTES) {
+                long word = segment.getLong(position);
+                if(reverse) {
+                    word = Long.reverseBytes(word);
+                }
+                long decrypted = word ^ key[(i >> 3) & 1] ^ (word << 8 | last);
+                last = (int) (word >>> 56);
+                segment.putLong(position, reverse ? Long.reverseBytes(decrypted) : decrypted);
+            }
+            for (; position < end; position++, i++) {
+                int encrypted = segment.get(position) & 0xFF;
+                segment.put(position, (byte) (encrypted ^ keyByte(i) ^ last));
+                last = encrypted;
+            }
+        }
+    }
+}
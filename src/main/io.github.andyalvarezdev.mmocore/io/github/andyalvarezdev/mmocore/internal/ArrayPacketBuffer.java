@@ -2,22 +2,36 @@ package io.github.andyalvarezdev.mmocore.internal;
 
 import io.github.andyalvarezdev.mmocore.ReadableBuffer;
 import io.github.andyalvarezdev.mmocore.ResourcePool;
+import io.github.andyalvarezdev.mmocore.SegmentConsumer;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 
-import static java.lang.Byte.toUnsignedInt;
-import static java.lang.Byte.toUnsignedLong;
+import static io.github.andyalvarezdev.mmocore.internal.VarInts.CONTINUATION_BIT;
+import static io.github.andyalvarezdev.mmocore.internal.VarInts.PAYLOAD_BITS;
 import static java.lang.Double.doubleToRawLongBits;
 import static java.lang.Double.longBitsToDouble;
 import static java.lang.Float.intBitsToFloat;
+import static java.lang.Math.max;
+import static java.util.Objects.isNull;
 
 public class ArrayPacketBuffer implements WritableBuffer, ReadableBuffer {
 
+    private static final VarHandle SHORT = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle CHAR = MethodHandles.byteArrayViewVarHandle(char[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle FLOAT = MethodHandles.byteArrayViewVarHandle(float[].class, ByteOrder.LITTLE_ENDIAN);
+
     private final ResourcePool resourcePool;
     private byte[] data;
     private int index;
     private int limit;
+    private BitWriter bitWriter;
+    private BitReader bitReader;
 
     public ArrayPacketBuffer(int size, ResourcePool resourcePool) {
         data = new byte[size];
@@ -37,17 +51,30 @@ public class ArrayPacketBuffer implements WritableBuffer, ReadableBuffer {
 
     private void ensureSize(int size) {
         if(data.length < size) {
-            data = Arrays.copyOf(data, (int) ((data.length + size) * 1.2));
+            data = Arrays.copyOf(data, max(data.length << 1, size));
             limit = data.length;
         }
     }
 
     @Override
     public void writeBytes(byte[] bytes) {
-        ensureSize(index + bytes.length);
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void writeBytes(byte[] bytes, int offset, int length) {
+        ensureSize(index + length);
+
+        System.arraycopy(bytes, offset, data, index, length);
+        index += length;
+    }
 
-        System.arraycopy(bytes, 0, data, index, bytes.length);
-        index += bytes.length;
+    @Override
+    public void writeBytes(ByteBuffer bytes) {
+        int length = bytes.remaining();
+        ensureSize(index + length);
+        bytes.get(data, index, length);
+        index += length;
     }
 
     @Override
@@ -59,16 +86,27 @@ public class ArrayPacketBuffer implements WritableBuffer, ReadableBuffer {
     @Override
     public void writeShort(int index, short value) {
         ensureSize(index + 2);
-        data[index++] = (byte) value;
-        data[index] = (byte) (value >>> 8);
+        SHORT.set(data, index, value);
     }
 
     @Override
     public void writeChar(char value) {
-        writeShort((short) value);
+        ensureSize(index + 2);
+        CHAR.set(data, index, value);
+        index += 2;
     }
 
 
+    @Override
+    public void writeChars(CharSequence text) {
+        int length = text.length();
+        ensureSize(index + length * 2);
+        for (int i = 0; i < length; i++) {
+            CHAR.set(data, index, text.charAt(i));
+            index += 2;
+        }
+    }
+
     @Override
     public void writeInt(int value) {
         writeInt(index, value);
@@ -78,10 +116,7 @@ public class ArrayPacketBuffer implements WritableBuffer, ReadableBuffer {
     @Override
     public void writeInt(int index, int value) {
         ensureSize(index + 4);
-        data[index++] = (byte) value;
-        data[index++] = (byte) (value >>> 8);
-        data[index++] = (byte) (value >>> 16);
-        data[index] = (byte) (value >>> 24);
+        INT.set(data, index, value);
     }
 
     @Override
@@ -92,14 +127,8 @@ public class ArrayPacketBuffer implements WritableBuffer, ReadableBuffer {
     @Override
     public void writeLong(long value) {
         ensureSize(index + 8);
-        data[index++] = (byte) value;
-        data[index++] = (byte) (value >>> 8);
-        data[index++] = (byte) (value >>> 16);
-        data[index++] = (byte) (value >>> 24);
-        data[index++] = (byte) (value >>> 32);
-        data[index++] = (byte) (value >>> 40);
-        data[index++] = (byte) (value >>> 48);
-        data[index++] = (byte) (value >>> 56);
+        LONG.set(data, index, value);
+        index += 8;
     }
 
     @Override
@@ -107,6 +136,70 @@ public class ArrayPacketBuffer implements WritableBuffer, ReadableBuffer {
         writeLong(doubleToRawLongBits(value));
     }
 
+    @Override
+    public void writeVarInt(int value) {
+        ensureSize(index + VarInts.varIntSize(value));
+        while ((value & ~PAYLOAD_BITS) != 0) {
+            data[index++] = (byte) (value & PAYLOAD_BITS | CONTINUATION_BIT);
+            value >>>= 7;
+        }
+        data[index++] = (byte) value;
+    }
+
+    @Override
+    public void writeVarLong(long value) {
+        ensureSize(index + VarInts.varLongSize(value));
+        while ((value & ~PAYLOAD_BITS) != 0) {
+            data[index++] = (byte) (value & PAYLOAD_BITS | CONTINUATION_BIT);
+            value >>>= 7;
+        }
+        data[index++] = (byte) value;
+    }
+
+    @Override
+    public void writeBits(long value, int bits) {
+        if(isNull(bitWriter)) {
+            bitWriter = new BitWriter(this);
+        }
+        bitWriter.writeBits(value, bits);
+    }
+
+    @Override
+    public void writeShorts(short[] values, int offset, int length) {
+        ensureSize(index + length * Short.BYTES);
+        for (int i = offset; i < offset + length; i++) {
+            SHORT.set(data, index, values[i]);
+            index += Short.BYTES;
+        }
+    }
+
+    @Override
+    public void writeInts(int[] values, int offset, int length) {
+        ensureSize(index + length * Integer.BYTES);
+        for (int i = offset; i < offset + length; i++) {
+            INT.set(data, index, values[i]);
+            index += Integer.BYTES;
+        }
+    }
+
+    @Override
+    public void writeLongs(long[] values, int offset, int length) {
+        ensureSize(index + length * Long.BYTES);
+        for (int i = offset; i < offset + length; i++) {
+            LONG.set(data, index, values[i]);
+            index += Long.BYTES;
+        }
+    }
+
+    @Override
+    public void writeFloats(float[] values, int offset, int length) {
+        ensureSize(index + length * Float.BYTES);
+        for (int i = offset; i < offset + length; i++) {
+            FLOAT.set(data, index, values[i]);
+            index += Float.BYTES;
+        }
+    }
+
     @Override
     public int position() {
         return index;
@@ -129,28 +222,36 @@ public class ArrayPacketBuffer implements WritableBuffer, ReadableBuffer {
 
     @Override
     public short readShort() {
-        return (short) (readUnsigned(index++) | readUnsigned(index++) << 8);
+        short value = (short) SHORT.get(data, index);
+        index += 2;
+        return value;
     }
 
     @Override
     public short readShort(int index) {
-        return (short) (readUnsigned(index++) | readUnsigned(index) << 8);
+        return (short) SHORT.get(data, index);
     }
 
+    @Override
     public char readChar() {
-        return (char) readShort();
+        char value = (char) CHAR.get(data, index);
+        index += 2;
+        return value;
     }
 
-    private int readUnsigned(int index) {
-        return toUnsignedInt(data[index]);
+    @Override
+    public void readChars(char[] dst, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            dst[i] = (char) CHAR.get(data, index);
+            index += 2;
+        }
     }
 
     @Override
     public int readInt() {
-        return readUnsigned(index++)  |
-                readUnsigned(index++) << 8  |
-                readUnsigned(index++) << 16 |
-                readUnsigned(index++) << 24;
+        int value = (int) INT.get(data, index);
+        index += 4;
+        return value;
     }
 
     @Override
@@ -158,16 +259,45 @@ public class ArrayPacketBuffer implements WritableBuffer, ReadableBuffer {
         return intBitsToFloat(readInt());
     }
 
+    @Override
+    public long readBits(int bits) {
+        if(isNull(bitReader)) {
+            bitReader = new BitReader(this);
+        }
+        return bitReader.readBits(bits);
+    }
+
+    @Override
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            byte b = data[index++];
+            value |= (b & PAYLOAD_BITS) << shift;
+            if(b >= 0) {
+                return value;
+            }
+        }
+        throw VarInts.malformed("int");
+    }
+
+    @Override
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = data[index++];
+            value |= (long) (b & PAYLOAD_BITS) << shift;
+            if(b >= 0) {
+                return value;
+            }
+        }
+        throw VarInts.malformed("long");
+    }
+
     @Override
     public long readLong() {
-        return  toUnsignedLong(data[index++])  |
-                toUnsignedLong(data[index++]) <<  8  |
-                toUnsignedLong(data[index++]) << 16 |
-                toUnsignedLong(data[index++]) << 24 |
-                toUnsignedLong(data[index++]) << 32 |
-                toUnsignedLong(data[index++]) << 40 |
-                toUnsignedLong(data[index++]) << 48 |
-                toUnsignedLong(data[index++]) << 56;
+        long value = (long) LONG.get(data, index);
+        index += 8;
+        return value;
     }
 
     @Override
@@ -186,9 +316,60 @@ public class ArrayPacketBuffer implements WritableBuffer, ReadableBuffer {
         index += length;
     }
 
+    @Override
+    public void readShorts(short[] dst, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            dst[i] = (short) SHORT.get(data, index);
+            index += Short.BYTES;
+        }
+    }
+
+    @Override
+    public void readInts(int[] dst, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            dst[i] = (int) INT.get(data, index);
+            index += Integer.BYTES;
+        }
+    }
+
+    @Override
+    public void readLongs(long[] dst, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            dst[i] = (long) LONG.get(data, index);
+            index += Long.BYTES;
+        }
+    }
+
+    @Override
+    public void readFloats(float[] dst, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            dst[i] = (float) FLOAT.get(data, index);
+            index += Float.BYTES;
+        }
+    }
+
     @Override
     public int readInt(int index) {
-        return readUnsigned(index++) | readUnsigned(index++) << 8 |  readUnsigned(index++) << 16 | readUnsigned(index) << 24;
+        return (int) INT.get(data, index);
+    }
+
+    @Override
+    public long readLong(int index) {
+        return (long) LONG.get(data, index);
+    }
+
+    @Override
+    public void writeLong(int index, long value) {
+        ensureSize(index + 8);
+        LONG.set(data, index, value);
+    }
+
+    @Override
+    public void forEachSegment(int index, int length, SegmentConsumer consumer) {
+        if(index < 0 || length < 0 || index + length > limit) {
+            throw new IndexOutOfBoundsException("Trying access index " + index + " until index " + (index + length) + " , max accessible index is " + limit);
+        }
+        consumer.accept(ByteBuffer.wrap(data, index, length).order(ByteOrder.LITTLE_ENDIAN), index);
     }
 
     @Override
@@ -217,6 +398,8 @@ public class ArrayPacketBuffer implements WritableBuffer, ReadableBuffer {
     public void releaseResources() {
         index = 0;
         limit = data.length;
+        bitWriter = null;
+        bitReader = null;
     }
 
     @Override
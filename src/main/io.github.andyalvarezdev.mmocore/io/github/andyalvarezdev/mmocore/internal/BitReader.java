@@ -0,0 +1,39 @@
+package io.github.andyalvarezdev.mmocore.internal;
+
+import io.github.andyalvarezdev.mmocore.ReadableBuffer;
+
+import static java.lang.Math.min;
+
+/**
+ * Unpacks the bit fields written by a {@link BitWriter} from a {@link ReadableBuffer}.
+ *
+ * Consecutive bit fields share the same byte. Any other read moves the buffer position, so the next bit field starts a new byte.
+ */
+final class BitReader {
+
+    private final ReadableBuffer buffer;
+    private int remaining = -1;
+    private int bitCount = Byte.SIZE;
+    private int current;
+
+    BitReader(ReadableBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    long readBits(int bits) {
+        long value = 0;
+        int read = 0;
+        while (read < bits) {
+            if(bitCount == Byte.SIZE || remaining != buffer.remaining()) {
+                current = Byte.toUnsignedInt(buffer.readByte());
+                remaining = buffer.remaining();
+                bitCount = 0;
+            }
+            int amount = min(bits - read, Byte.SIZE - bitCount);
+            value |= (long) (current >>> bitCount & (1 << amount) - 1) << read;
+            bitCount += amount;
+            read += amount;
+        }
+        return value;
+    }
+}
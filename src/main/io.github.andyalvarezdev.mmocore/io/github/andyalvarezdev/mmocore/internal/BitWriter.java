@@ -0,0 +1,45 @@
+package io.github.andyalvarezdev.mmocore.internal;
+
+import static java.lang.Math.min;
+
+/**
+ * Packs bit fields into a {@link WritableBuffer}, starting from the least significant bit of each byte.
+ *
+ * Consecutive bit fields share the same byte. Any other write moves the buffer position, so the next bit field starts a new byte.
+ */
+final class BitWriter {
+
+    private final WritableBuffer buffer;
+    private int byteIndex = -1;
+    private int bitCount = Byte.SIZE;
+    private int current;
+
+    BitWriter(WritableBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    void writeBits(long value, int bits) {
+        while (bits > 0) {
+            if(bitCount == Byte.SIZE || byteIndex != buffer.position() - 1) {
+                if(bits >= Byte.SIZE) {
+                    buffer.writeByte((byte) value);
+                    byteIndex = buffer.position() - 1;
+                    bitCount = Byte.SIZE;
+                    value >>>= Byte.SIZE;
+                    bits -= Byte.SIZE;
+                    continue;
+                }
+                buffer.writeByte((byte) 0);
+                byteIndex = buffer.position() - 1;
+                bitCount = 0;
+                current = 0;
+            }
+            int amount = min(bits, Byte.SIZE - bitCount);
+            current |= (int) (value & ((1 << amount) - 1)) << bitCount;
+            buffer.writeByte(byteIndex, (byte) current);
+            bitCount += amount;
+            value >>>= amount;
+            bits -= amount;
+        }
+    }
+}
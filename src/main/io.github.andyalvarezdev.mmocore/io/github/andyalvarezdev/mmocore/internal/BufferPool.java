@@ -4,31 +4,229 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Objects.nonNull;
+
+/**
+ * A pool of direct buffers of a single size.
+ *
+ * When tuning is used the capacity of the pool follows the demand. At the end of each window the pool grows
+ * if more than {@value #MISS_RATIO_PERCENT}% of the buffers taken in the window were missing, the memory of the new
+ * buffers is reserved from the budget shared by all pools. Otherwise the pool trims half of its capacity above
+ * the highest amount of buffers in use during the last {@value #WINDOWS} windows, never below a quarter of its initial size.
+ * The windows are closed by the calls to {@link #get()}, so an unused pool keeps its buffers.
+ */
 public class BufferPool {
 
+    static final int MISS_RATIO_PERCENT = 5;
+    static final int WINDOWS = 4;
+
     private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
-    private final int maxSize;
+    private final AtomicInteger idle = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger windowHighWater = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder windowHits = new LongAdder();
+    private final LongAdder windowMisses = new LongAdder();
+    private final AtomicLong nextWindow = new AtomicLong();
+    private final int[] highWaterMarks = new int[WINDOWS];
+    private final int minSize;
     private final int bufferSize;
+    private volatile int maxSize;
+    private volatile SlabArena arena;
+    private MemoryBudget budget;
+    private long tuningWindow;
+    private int window;
+    private long grows;
+    private long trims;
 
     public BufferPool(int maxSize, int bufferSize) {
         this.maxSize = maxSize;
+        this.minSize = max(1, maxSize / 4);
         this.bufferSize = bufferSize;
     }
+
+    /**
+     * Takes the buffers from slabs reserved up front instead of allocating each buffer.
+     *
+     * @param slabSize the max size of each slab
+     * @param budget the budget shared by the pools, the slabs are reserved from it
+     */
+    public synchronized void useArena(int slabSize, MemoryBudget budget) {
+        if(arena == null) {
+            arena = new SlabArena(bufferSize, slabSize, maxSize, budget);
+        }
+    }
+
+    public SlabArena getArena() {
+        return arena;
+    }
+
+    /**
+     * Adapts the capacity of the pool to the demand, the pools using an arena are not tuned.
+     *
+     * @param windowNanos the duration of each window
+     * @param budget the budget shared by the pools, the current capacity is reserved from it
+     */
+    public synchronized void useTuning(long windowNanos, MemoryBudget budget) {
+        if(tuningWindow == 0 && windowNanos > 0 && arena == null) {
+            this.budget = budget;
+            budget.forceReserve(maxSize, bufferSize);
+            nextWindow.set(System.nanoTime() + windowNanos);
+            tuningWindow = windowNanos;
+        }
+    }
+
     public void initialize(float factor) {
         final int amount = (int) Math.min(maxSize, maxSize * factor);
         for (int i = 0; i < amount; i++) {
             buffers.offer(ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN));
         }
+        idle.addAndGet(amount);
     }
 
     public void recycle(ByteBuffer buffer) {
-        if(buffers.size() < maxSize) {
+        SlabArena slabArena = arena;
+        if(nonNull(slabArena)) {
+            slabArena.release(buffer);
+            return;
+        }
+        inUse.decrementAndGet();
+        if(idle.incrementAndGet() <= maxSize) {
             buffers.offer(buffer.clear());
+        } else {
+            idle.decrementAndGet();
         }
     }
 
     public ByteBuffer get() {
-        return buffers.poll();
+        SlabArena slabArena = arena;
+        if(nonNull(slabArena)) {
+            return slabArena.allocate();
+        }
+        ByteBuffer buffer = buffers.poll();
+        if(nonNull(buffer)) {
+            idle.decrementAndGet();
+            hits.increment();
+            windowHits.increment();
+        } else {
+            misses.increment();
+            windowMisses.increment();
+        }
+        int used = inUse.incrementAndGet();
+        if(used > windowHighWater.get()) {
+            windowHighWater.accumulateAndGet(used, Math::max);
+        }
+        closeWindow();
+        return buffer;
+    }
+
+    private void closeWindow() {
+        long end = nextWindow.get();
+        if(tuningWindow > 0 && System.nanoTime() - end >= 0 && nextWindow.compareAndSet(end, end + tuningWindow)) {
+            tune();
+        }
+    }
+
+    /**
+     * Closes the current window, growing or trimming the pool.
+     */
+    public synchronized void tune() {
+        if(tuningWindow == 0) {
+            return;
+        }
+        long missed = windowMisses.sumThenReset();
+        long taken = windowHits.sumThenReset() + missed;
+        highWaterMarks[window] = windowHighWater.getAndSet(max(0, inUse.get()));
+        window = (window + 1) % WINDOWS;
+
+        if(missed > 0 && missed * 100 >= taken * MISS_RATIO_PERCENT) {
+            grow((int) min(Integer.MAX_VALUE, max(missed, maxSize / 2)));
+        } else {
+            trim();
+        }
+    }
+
+    private void grow(int amount) {
+        int granted = budget.reserve(amount, bufferSize);
+        if(granted > 0) {
+            maxSize += granted;
+            grows++;
+        }
+    }
+
+    private void trim() {
+        int demand = 0;
+        for (int highWater : highWaterMarks) {
+            demand = max(demand, highWater);
+        }
+        int target = max(minSize, demand);
+        if(maxSize <= target) {
+            return;
+        }
+        int excess = (maxSize - target + 1) / 2;
+        maxSize -= excess;
+        budget.release(excess, bufferSize);
+        trims++;
+        while (idle.get() > maxSize && nonNull(buffers.poll())) {
+            idle.decrementAndGet();
+        }
+    }
+
+    public int bufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return the max amount of idle buffers held by the pool.
+     */
+    public int capacity() {
+        SlabArena slabArena = arena;
+        return nonNull(slabArena) ? slabArena.capacity() : maxSize;
+    }
+
+    /**
+     * @return the amount of buffers ready to be taken.
+     */
+    public int idle() {
+        SlabArena slabArena = arena;
+        return nonNull(slabArena) ? slabArena.available() : idle.get();
+    }
+
+    /**
+     * @return the amount of buffers taken and not recycled yet.
+     */
+    public int inUse() {
+        SlabArena slabArena = arena;
+        return nonNull(slabArena) ? slabArena.capacity() - slabArena.available() : max(0, inUse.get());
+    }
+
+    /**
+     * @return the highest amount of buffers in use during the current window.
+     */
+    public int highWaterMark() {
+        return windowHighWater.get();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public synchronized long grows() {
+        return grows;
+    }
+
+    public synchronized long trims() {
+        return trims;
     }
 }
@@ -0,0 +1,189 @@
+package io.github.andyalvarezdev.mmocore.internal;
+
+import io.github.andyalvarezdev.mmocore.Buffer;
+import io.github.andyalvarezdev.mmocore.ResourcePool;
+
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Compresses the payload of the frames bigger than a threshold using pooled {@link Deflater} and {@link Inflater}.
+ *
+ * A compressed frame has the compressed flag set in its header. Its payload holds the size of the uncompressed payload
+ * as a variable length int followed by the compressed data.
+ *
+ * The uncompressed size is chosen by the peer, so it's checked against the max size of a received packet
+ * before any buffer is taken for the uncompressed payload.
+ */
+public class Compressor {
+
+    private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+    private final Queue<Inflater> inflaters = new ConcurrentLinkedQueue<>();
+    private final int threshold;
+    private final byte[] dictionary;
+    private final int maxPayloadSize;
+    private final int maxUncompressedSize;
+    private final int maxIdle;
+
+    public Compressor(int threshold, byte[] dictionary, int maxPayloadSize, int maxUncompressedSize, int maxIdle) {
+        this.threshold = threshold;
+        this.dictionary = dictionary;
+        this.maxPayloadSize = maxPayloadSize;
+        this.maxUncompressedSize = maxUncompressedSize;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Compress the payload of the frame into a new buffer taken from the resource pool.
+     *
+     * @param frame the frame to be compressed, the space reserved to the header included
+     * @param headerSize the size of the space reserved to the frame's header
+     * @param resourcePool the pool providing the buffer
+     * @return the compressed frame or null if the payload is smaller than the threshold or the compression doesn't reduce its size
+     */
+    public WritableBuffer compress(WritableBuffer frame, int headerSize, ResourcePool resourcePool) {
+        int payloadSize = frame.limit() - headerSize;
+        if(payloadSize < threshold || payloadSize > maxPayloadSize) {
+            return null;
+        }
+
+        ByteBuffer output = resourcePool.getBuffer(frame.limit());
+        WritableBuffer compressed = WritableBuffer.dynamicOf(output, resourcePool);
+        compressed.position(headerSize);
+        compressed.writeVarInt(payloadSize);
+        output.limit(frame.limit()).position(compressed.position());
+
+        Deflater deflater = acquireDeflater();
+        try {
+            if(deflate(deflater, frame.toByteBuffers(), headerSize, output)) {
+                int size = output.position();
+                output.clear();
+                compressed.position(size);
+                compressed.mark();
+                return compressed;
+            }
+        } finally {
+            recycle(deflater);
+        }
+        output.clear();
+        compressed.releaseResources();
+        return null;
+    }
+
+    private static boolean deflate(Deflater deflater, ByteBuffer[] inputs, int headerSize, ByteBuffer output) {
+        for (int i = 0; i < inputs.length; i++) {
+            ByteBuffer input = inputs[i].duplicate();
+            if(i == 0) {
+                input.position(headerSize);
+            }
+            deflater.setInput(input);
+            while (!deflater.needsInput()) {
+                deflater.deflate(output);
+                if(!output.hasRemaining()) {
+                    return false;
+                }
+            }
+        }
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflater.deflate(output);
+            if(!output.hasRemaining()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decompress the payload of a compressed frame into a new buffer taken from the resource pool.
+     *
+     * @param payload the buffer holding the compressed data
+     * @param offset the index of the compressed data, after the size of the uncompressed payload
+     * @param length the length of the compressed data
+     * @param size the size of the uncompressed payload
+     * @param resourcePool the pool providing the buffer
+     * @return the buffer holding the uncompressed payload
+     * @throws IllegalArgumentException if the payload is malformed or the uncompressed size is above the max size
+     */
+    public ByteBuffer decompress(Buffer payload, int offset, int length, int size, ResourcePool resourcePool) {
+        if(size <= 0 || size > maxUncompressedSize) {
+            throw new IllegalArgumentException("Invalid compressed payload size " + size);
+        }
+        ByteBuffer output = resourcePool.getBuffer(size);
+        output.limit(size);
+        Inflater inflater = acquireInflater();
+        try {
+            payload.forEachSegment(offset, length, (segment, index) -> inflate(inflater, segment, output));
+            if(!inflater.finished() || output.hasRemaining()) {
+                throw new IllegalArgumentException("The uncompressed payload is smaller than expected");
+            }
+            return output.flip();
+        } catch (IllegalArgumentException e) {
+            resourcePool.recycleBuffer(output);
+            throw new IllegalArgumentException("Malformed compressed payload", e);
+        } finally {
+            recycle(inflater);
+        }
+    }
+
+    private void inflate(Inflater inflater, ByteBuffer segment, ByteBuffer output) {
+        inflater.setInput(segment);
+        try {
+            while (!inflater.finished()) {
+                if(inflater.inflate(output) > 0) {
+                    continue;
+                }
+                if(inflater.needsDictionary() && nonNull(dictionary)) {
+                    inflater.setDictionary(dictionary);
+                } else if(inflater.needsInput()) {
+                    return;
+                } else {
+                    throw new IllegalArgumentException("Unexpected end of compressed data");
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private Deflater acquireDeflater() {
+        Deflater deflater = deflaters.poll();
+        if(isNull(deflater)) {
+            deflater = new Deflater();
+        }
+        if(nonNull(dictionary)) {
+            deflater.setDictionary(dictionary);
+        }
+        return deflater;
+    }
+
+    private Inflater acquireInflater() {
+        Inflater inflater = inflaters.poll();
+        return isNull(inflater) ? new Inflater() : inflater;
+    }
+
+    private void recycle(Deflater deflater) {
+        if(deflaters.size() < maxIdle) {
+            deflater.reset();
+            deflaters.offer(deflater);
+        } else {
+            deflater.end();
+        }
+    }
+
+    private void recycle(Inflater inflater) {
+        if(inflaters.size() < maxIdle) {
+            inflater.reset();
+            inflaters.offer(inflater);
+        } else {
+            inflater.end();
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package io.github.andyalvarezdev.mmocore.internal;
 
+import io.github.andyalvarezdev.mmocore.ReadableBuffer;
 import io.github.andyalvarezdev.mmocore.ResourcePool;
+import io.github.andyalvarezdev.mmocore.SegmentConsumer;
 
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
+import static io.github.andyalvarezdev.mmocore.internal.VarInts.CONTINUATION_BIT;
+import static io.github.andyalvarezdev.mmocore.internal.VarInts.PAYLOAD_BITS;
 import static java.lang.Math.min;
+import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
-public class DynamicPacketBuffer implements WritableBuffer {
+public class DynamicPacketBuffer implements WritableBuffer, ReadableBuffer {
 
     private PacketNode[] nodes = new PacketNode[8];
     private PacketNode currentNode;
@@ -17,6 +22,8 @@ public class DynamicPacketBuffer implements WritableBuffer {
     private int nodeCount;
     private int bufferIndex;
     private int limit;
+    private BitWriter bitWriter;
+    private BitReader bitReader;
 
     public DynamicPacketBuffer(ByteBuffer buffer, ResourcePool resourcePool) {
         this.resourcePool = resourcePool;
@@ -57,15 +64,35 @@ public class DynamicPacketBuffer implements WritableBuffer {
 
     @Override
     public void writeBytes(byte[] bytes) {
-        ensureSize(bufferIndex + bytes.length);
-        setBytes(bufferIndex, bytes);
-        bufferIndex += bytes.length;
+        writeBytes(bytes, 0, bytes.length);
     }
 
-    private void setBytes(int index, byte[] bytes) {
+    @Override
+    public void writeBytes(byte[] bytes, int offset, int length) {
+        ensureSize(bufferIndex + length);
+        setBytes(bufferIndex, bytes, offset, length);
+        bufferIndex += length;
+    }
+
+    @Override
+    public void writeBytes(ByteBuffer bytes) {
+        int length = bytes.remaining();
+        ensureSize(bufferIndex + length);
+        while (bytes.hasRemaining()) {
+            PacketNode node = indexToNode(bufferIndex);
+            int available = min(bytes.remaining(), node.endIndex - bufferIndex);
+            int bytesLimit = bytes.limit();
+            bytes.limit(bytes.position() + available);
+            node.buffer.position(node.idx(bufferIndex));
+            node.buffer.put(bytes);
+            node.buffer.position(0);
+            bytes.limit(bytesLimit);
+            bufferIndex += available;
+        }
+    }
+
+    private void setBytes(int index, byte[] bytes, int offset, int length) {
         PacketNode node = indexToNode(index);
-        int length = bytes.length;
-        int offset = 0;
         do {
             int available = min(length, node.endIndex - index);
             node.buffer.position(node.idx(index));
@@ -106,6 +133,29 @@ public class DynamicPacketBuffer implements WritableBuffer {
         writeShort((short) value);
     }
 
+    @Override
+    public void writeChars(CharSequence text) {
+        int length = text.length();
+        ensureSize(bufferIndex + length * 2);
+        setChars(bufferIndex, text, length);
+        bufferIndex += length * 2;
+    }
+
+    private void setChars(int index, CharSequence text, int length) {
+        int i = 0;
+        while (i < length) {
+            PacketNode node = indexToNode(index);
+            while (i < length && index + 2 <= node.endIndex) {
+                node.buffer.putChar(node.idx(index), text.charAt(i++));
+                index += 2;
+            }
+            if(i < length && index < node.endIndex) {
+                setShort(index, (short) text.charAt(i++));
+                index += 2;
+            }
+        }
+    }
+
     @Override
     public void writeInt(int value) {
         ensureSize(bufferIndex + 4);
@@ -151,11 +201,149 @@ public class DynamicPacketBuffer implements WritableBuffer {
         }
     }
 
+    @Override
+    public void writeLong(int index, long value) {
+        checkBounds(index, 8);
+        setLong(index, value);
+    }
+
     @Override
     public void writeDouble(double value) {
         writeLong(Double.doubleToRawLongBits(value));
     }
 
+    @Override
+    public void writeVarInt(int value) {
+        int size = VarInts.varIntSize(value);
+        ensureSize(bufferIndex + size);
+        PacketNode node = indexToNode(bufferIndex);
+        if(bufferIndex + size <= node.endIndex) {
+            int index = node.idx(bufferIndex);
+            while ((value & ~PAYLOAD_BITS) != 0) {
+                node.buffer.put(index++, (byte) (value & PAYLOAD_BITS | CONTINUATION_BIT));
+                value >>>= 7;
+            }
+            node.buffer.put(index, (byte) value);
+            bufferIndex += size;
+        } else {
+            while ((value & ~PAYLOAD_BITS) != 0) {
+                setByte(bufferIndex++, (byte) (value & PAYLOAD_BITS | CONTINUATION_BIT));
+                value >>>= 7;
+            }
+            setByte(bufferIndex++, (byte) value);
+        }
+    }
+
+    @Override
+    public void writeVarLong(long value) {
+        int size = VarInts.varLongSize(value);
+        ensureSize(bufferIndex + size);
+        PacketNode node = indexToNode(bufferIndex);
+        if(bufferIndex + size <= node.endIndex) {
+            int index = node.idx(bufferIndex);
+            while ((value & ~PAYLOAD_BITS) != 0) {
+                node.buffer.put(index++, (byte) (value & PAYLOAD_BITS | CONTINUATION_BIT));
+                value >>>= 7;
+            }
+            node.buffer.put(index, (byte) value);
+            bufferIndex += size;
+        } else {
+            while ((value & ~PAYLOAD_BITS) != 0) {
+                setByte(bufferIndex++, (byte) (value & PAYLOAD_BITS | CONTINUATION_BIT));
+                value >>>= 7;
+            }
+            setByte(bufferIndex++, (byte) value);
+        }
+    }
+
+    @Override
+    public void writeBits(long value, int bits) {
+        if(isNull(bitWriter)) {
+            bitWriter = new BitWriter(this);
+        }
+        bitWriter.writeBits(value, bits);
+    }
+
+    @Override
+    public void writeShorts(short[] values, int offset, int length) {
+        ensureSize(bufferIndex + length * Short.BYTES);
+        int end = offset + length;
+        while (offset < end) {
+            PacketNode node = indexToNode(bufferIndex);
+            int amount = min(end - offset, (node.endIndex - bufferIndex) / Short.BYTES);
+            if(amount > 0) {
+                node.buffer.position(node.idx(bufferIndex));
+                node.buffer.asShortBuffer().put(values, offset, amount);
+                node.buffer.position(0);
+                offset += amount;
+                bufferIndex += amount * Short.BYTES;
+            } else {
+                setShort(bufferIndex, values[offset++]);
+                bufferIndex += Short.BYTES;
+            }
+        }
+    }
+
+    @Override
+    public void writeInts(int[] values, int offset, int length) {
+        ensureSize(bufferIndex + length * Integer.BYTES);
+        int end = offset + length;
+        while (offset < end) {
+            PacketNode node = indexToNode(bufferIndex);
+            int amount = min(end - offset, (node.endIndex - bufferIndex) / Integer.BYTES);
+            if(amount > 0) {
+                node.buffer.position(node.idx(bufferIndex));
+                node.buffer.asIntBuffer().put(values, offset, amount);
+                node.buffer.position(0);
+                offset += amount;
+                bufferIndex += amount * Integer.BYTES;
+            } else {
+                setInt(bufferIndex, values[offset++]);
+                bufferIndex += Integer.BYTES;
+            }
+        }
+    }
+
+    @Override
+    public void writeLongs(long[] values, int offset, int length) {
+        ensureSize(bufferIndex + length * Long.BYTES);
+        int end = offset + length;
+        while (offset < end) {
+            PacketNode node = indexToNode(bufferIndex);
+            int amount = min(end - offset, (node.endIndex - bufferIndex) / Long.BYTES);
+            if(amount > 0) {
+                node.buffer.position(node.idx(bufferIndex));
+                node.buffer.asLongBuffer().put(values, offset, amount);
+                node.buffer.position(0);
+                offset += amount;
+                bufferIndex += amount * Long.BYTES;
+            } else {
+                setLong(bufferIndex, values[offset++]);
+                bufferIndex += Long.BYTES;
+            }
+        }
+    }
+
+    @Override
+    public void writeFloats(float[] values, int offset, int length) {
+        ensureSize(bufferIndex + length * Float.BYTES);
+        int end = offset + length;
+        while (offset < end) {
+            PacketNode node = indexToNode(bufferIndex);
+            int amount = min(end - offset, (node.endIndex - bufferIndex) / Float.BYTES);
+            if(amount > 0) {
+                node.buffer.position(node.idx(bufferIndex));
+                node.buffer.asFloatBuffer().put(values, offset, amount);
+                node.buffer.position(0);
+                offset += amount;
+                bufferIndex += amount * Float.BYTES;
+            } else {
+                setInt(bufferIndex, Float.floatToRawIntBits(values[offset++]));
+                bufferIndex += Float.BYTES;
+            }
+        }
+    }
+
     @Override
     public int position() {
         return bufferIndex;
@@ -195,6 +383,10 @@ public class DynamicPacketBuffer implements WritableBuffer {
     @Override
     public int readInt(int index) {
         checkSize(index + 4);
+        return getInt(index);
+    }
+
+    private int getInt(int index) {
         PacketNode node = indexToNode(index);
         if(index + 4 <= node.endIndex) {
             return node.buffer.getInt(node.idx(index));
@@ -203,6 +395,232 @@ public class DynamicPacketBuffer implements WritableBuffer {
         }
     }
 
+    @Override
+    public long readLong(int index) {
+        checkSize(index + 8);
+        return getLong(index);
+    }
+
+    private long getLong(int index) {
+        PacketNode node = indexToNode(index);
+        if(index + 8 <= node.endIndex) {
+            return node.buffer.getLong(node.idx(index));
+        } else {
+            return getInt(index) & 0xFFFFFFFFL | (long) getInt(index + 4) << 32;
+        }
+    }
+
+    @Override
+    public void forEachSegment(int index, int length, SegmentConsumer consumer) {
+        checkBounds(index, length);
+        int end = index + length;
+        while (index < end) {
+            PacketNode node = indexToNode(index);
+            int segmentEnd = min(end, node.endIndex);
+            ByteBuffer buffer = node.buffer;
+            int bufferLimit = buffer.limit();
+            buffer.limit(node.idx(segmentEnd)).position(node.idx(index));
+            try {
+                consumer.accept(buffer, index);
+            } finally {
+                buffer.limit(bufferLimit).position(0);
+            }
+            index = segmentEnd;
+        }
+    }
+
+    @Override
+    public byte readByte() {
+        checkSize(bufferIndex + 1);
+        return getByte(bufferIndex++);
+    }
+
+    @Override
+    public short readShort() {
+        checkSize(bufferIndex + 2);
+        short value = getShort(bufferIndex);
+        bufferIndex += 2;
+        return value;
+    }
+
+    @Override
+    public char readChar() {
+        return (char) readShort();
+    }
+
+    @Override
+    public void readChars(char[] dst, int offset, int length) {
+        checkSize(bufferIndex + length * 2);
+        for (int i = offset; i < offset + length; i++) {
+            dst[i] = (char) getShort(bufferIndex);
+            bufferIndex += 2;
+        }
+    }
+
+    @Override
+    public int readInt() {
+        checkSize(bufferIndex + 4);
+        int value = getInt(bufferIndex);
+        bufferIndex += 4;
+        return value;
+    }
+
+    @Override
+    public float readFloat() {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    @Override
+    public long readBits(int bits) {
+        if(isNull(bitReader)) {
+            bitReader = new BitReader(this);
+        }
+        return bitReader.readBits(bits);
+    }
+
+    @Override
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            byte b = readByte();
+            value |= (b & PAYLOAD_BITS) << shift;
+            if(b >= 0) {
+                return value;
+            }
+        }
+        throw VarInts.malformed("int");
+    }
+
+    @Override
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & PAYLOAD_BITS) << shift;
+            if(b >= 0) {
+                return value;
+            }
+        }
+        throw VarInts.malformed("long");
+    }
+
+    @Override
+    public long readLong() {
+        long value = readLong(bufferIndex);
+        bufferIndex += 8;
+        return value;
+    }
+
+    @Override
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    @Override
+    public void readBytes(byte[] dst) {
+        readBytes(dst, 0, dst.length);
+    }
+
+    @Override
+    public void readBytes(byte[] dst, int offset, int length) {
+        checkSize(bufferIndex + length);
+        while (length > 0) {
+            PacketNode node = indexToNode(bufferIndex);
+            int available = min(length, node.endIndex - bufferIndex);
+            node.buffer.position(node.idx(bufferIndex));
+            node.buffer.get(dst, offset, available);
+            node.buffer.position(0);
+            length -= available;
+            offset += available;
+            bufferIndex += available;
+        }
+    }
+
+    @Override
+    public void readShorts(short[] dst, int offset, int length) {
+        checkSize(bufferIndex + length * Short.BYTES);
+        int end = offset + length;
+        while (offset < end) {
+            PacketNode node = indexToNode(bufferIndex);
+            int amount = min(end - offset, (node.endIndex - bufferIndex) / Short.BYTES);
+            if(amount > 0) {
+                node.buffer.position(node.idx(bufferIndex));
+                node.buffer.asShortBuffer().get(dst, offset, amount);
+                node.buffer.position(0);
+                offset += amount;
+                bufferIndex += amount * Short.BYTES;
+            } else {
+                dst[offset++] = getShort(bufferIndex);
+                bufferIndex += Short.BYTES;
+            }
+        }
+    }
+
+    @Override
+    public void readInts(int[] dst, int offset, int length) {
+        checkSize(bufferIndex + length * Integer.BYTES);
+        int end = offset + length;
+        while (offset < end) {
+            PacketNode node = indexToNode(bufferIndex);
+            int amount = min(end - offset, (node.endIndex - bufferIndex) / Integer.BYTES);
+            if(amount > 0) {
+                node.buffer.position(node.idx(bufferIndex));
+                node.buffer.asIntBuffer().get(dst, offset, amount);
+                node.buffer.position(0);
+                offset += amount;
+                bufferIndex += amount * Integer.BYTES;
+            } else {
+                dst[offset++] = getInt(bufferIndex);
+                bufferIndex += Integer.BYTES;
+            }
+        }
+    }
+
+    @Override
+    public void readLongs(long[] dst, int offset, int length) {
+        checkSize(bufferIndex + length * Long.BYTES);
+        int end = offset + length;
+        while (offset < end) {
+            PacketNode node = indexToNode(bufferIndex);
+            int amount = min(end - offset, (node.endIndex - bufferIndex) / Long.BYTES);
+            if(amount > 0) {
+                node.buffer.position(node.idx(bufferIndex));
+                node.buffer.asLongBuffer().get(dst, offset, amount);
+                node.buffer.position(0);
+                offset += amount;
+                bufferIndex += amount * Long.BYTES;
+            } else {
+                dst[offset++] = getLong(bufferIndex);
+                bufferIndex += Long.BYTES;
+            }
+        }
+    }
+
+    @Override
+    public void readFloats(float[] dst, int offset, int length) {
+        checkSize(bufferIndex + length * Float.BYTES);
+        int end = offset + length;
+        while (offset < end) {
+            PacketNode node = indexToNode(bufferIndex);
+            int amount = min(end - offset, (node.endIndex - bufferIndex) / Float.BYTES);
+            if(amount > 0) {
+                node.buffer.position(node.idx(bufferIndex));
+                node.buffer.asFloatBuffer().get(dst, offset, amount);
+                node.buffer.position(0);
+                offset += amount;
+                bufferIndex += amount * Float.BYTES;
+            } else {
+                dst[offset++] = Float.intBitsToFloat(getInt(bufferIndex));
+                bufferIndex += Float.BYTES;
+            }
+        }
+    }
+
+    @Override
+    public int remaining() {
+        return limit - bufferIndex;
+    }
+
     @Override
     public int limit() {
         return limit;
@@ -224,6 +642,7 @@ public class DynamicPacketBuffer implements WritableBuffer {
     }
 
     public void mark() {
+        ensureSize(bufferIndex + 1);
         limit = bufferIndex;
         limitBuffer();
     }
@@ -244,10 +663,11 @@ public class DynamicPacketBuffer implements WritableBuffer {
     }
 
     private void increaseBuffers(int size) {
-        int diffSize = size - capacity();
-        ByteBuffer buffer = resourcePool.getBuffer(diffSize);
-        PacketNode lastNode = nodes[nodeCount - 1];
-        newNode(buffer, lastNode.endIndex);
+        int diffSize;
+        while ((diffSize = size - capacity()) > 0) {
+            ByteBuffer buffer = resourcePool.getBuffer(resourcePool.boundedBufferSize(diffSize));
+            newNode(buffer, capacity());
+        }
     }
 
     private void checkSize(int size) {
@@ -296,6 +716,8 @@ public class DynamicPacketBuffer implements WritableBuffer {
         }
         nodeCount = 0;
         bufferIndex = 0;
+        bitWriter = null;
+        bitReader = null;
     }
 
     private static class PacketNode {
@@ -0,0 +1,221 @@
+package io.github.andyalvarezdev.mmocore.internal;
+
+import io.github.andyalvarezdev.mmocore.Buffer;
+import io.github.andyalvarezdev.mmocore.LengthField;
+import io.github.andyalvarezdev.mmocore.ResourcePool;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static io.github.andyalvarezdev.mmocore.internal.VarInts.CONTINUATION_BIT;
+import static io.github.andyalvarezdev.mmocore.internal.VarInts.PAYLOAD_BITS;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Reads and writes the header of the frames.
+ *
+ * The header holds the frame size shifted by the amount of flag bits enabled, the flags use the least significant bits.
+ * The compressed flag is enabled with the compression and the fragment flag, set on all fragments but the last,
+ * is enabled with the fragmentation. Without flags the header holds just the frame size.
+ *
+ * The packet data is written after space reserved for the largest header, the header is written just before
+ * the payload, so the frame may start after the beginning of the buffer.
+ *
+ * The frames written are bounded by the frame size limit, which may be lower than the max frame size of the format.
+ */
+public class FrameHeader {
+
+    private final LengthField field;
+    private final boolean bigEndian;
+    private final int flagBits;
+    private final int compressedFlag;
+    private final int fragmentFlag;
+    private final int maxFrameSize;
+    private final int frameSizeLimit;
+
+    public FrameHeader(LengthField field, ByteOrder order, boolean compression, boolean fragmentation) {
+        this(field, order, compression, fragmentation, Integer.MAX_VALUE);
+    }
+
+    public FrameHeader(LengthField field, ByteOrder order, boolean compression, boolean fragmentation, int frameSizeLimit) {
+        this.field = field;
+        this.bigEndian = order == ByteOrder.BIG_ENDIAN;
+        compressedFlag = compression ? 1 : 0;
+        fragmentFlag = fragmentation ? compressedFlag + 1 : 0;
+        flagBits = (compression ? 1 : 0) + (fragmentation ? 1 : 0);
+        maxFrameSize = (int) min(Integer.MAX_VALUE, field.maxValue() >>> flagBits);
+        this.frameSizeLimit = min(maxFrameSize, max(field.maxSize() + 1, frameSizeLimit));
+    }
+
+    /**
+     * @return the amount of bytes reserved before the payload.
+     */
+    public int reservedSize() {
+        return field.maxSize();
+    }
+
+    /**
+     * @return the amount of bytes that must be read before the header can be decoded.
+     */
+    public int minSize() {
+        return field == LengthField.VAR_INT ? 1 : field.maxSize();
+    }
+
+    /**
+     * @return the max frame size the format of the header can hold.
+     */
+    public int maxFrameSize() {
+        return maxFrameSize;
+    }
+
+    /**
+     * @return the max size of the frames written and, unless raised for a connection, of the frames read.
+     */
+    public int frameSizeLimit() {
+        return frameSizeLimit;
+    }
+
+    public int compressedFlag() {
+        return compressedFlag;
+    }
+
+    public boolean isFragmentationEnabled() {
+        return fragmentFlag != 0;
+    }
+
+    /**
+     * Checks if a payload fits in a single frame.
+     *
+     * @param payloadSize the size of the payload
+     * @param flags the flags of the frame
+     * @return true if the frame size doesn't exceed the frame size limit
+     */
+    public boolean fits(int payloadSize, int flags) {
+        return (long) payloadSize + headerSize(payloadSize, flags) <= frameSizeLimit;
+    }
+
+    /**
+     * Write the header of the payload held from the reserved space until the data limit.
+     *
+     * @param data the frame data
+     * @param flags the flags of the frame
+     * @return the index where the frame starts
+     * @throws IllegalStateException if the frame is larger than the frame size limit
+     */
+    public int write(Buffer data, int flags) {
+        int payloadSize = data.limit() - reservedSize();
+        int headerSize = headerSize(payloadSize, flags);
+        if((long) payloadSize + headerSize > frameSizeLimit) {
+            throw new IllegalStateException("The frame size " + (payloadSize + headerSize) + " exceeds the max frame size " + frameSizeLimit);
+        }
+        int start = reservedSize() - headerSize;
+        long value = value(payloadSize + headerSize, flags);
+        for (int i = 0; i < headerSize; i++) {
+            data.writeByte(start + i, headerByte(value, headerSize, i));
+        }
+        return start;
+    }
+
+    /**
+     * Split the payload held from the reserved space until the data limit into frames with the fragment flag set,
+     * but the last one. The frames are written into a new buffer taken from the resource pool.
+     *
+     * @param data the frame data
+     * @param flags the flags of each frame
+     * @param resourcePool the pool providing the buffers
+     * @return the buffer holding all frames
+     */
+    public WritableBuffer fragment(WritableBuffer data, int flags, ResourcePool resourcePool) {
+        WritableBuffer frames = WritableBuffer.dynamicOf(resourcePool.getSegmentBuffer(), resourcePool);
+        int maxPayloadSize = frameSizeLimit - reservedSize();
+        int index = reservedSize();
+        while (index < data.limit()) {
+            int payloadSize = min(maxPayloadSize, data.limit() - index);
+            int frameFlags = index + payloadSize < data.limit() ? flags | fragmentFlag : flags;
+            int headerSize = headerSize(payloadSize, frameFlags);
+            long value = value(payloadSize + headerSize, frameFlags);
+            for (int i = 0; i < headerSize; i++) {
+                frames.writeByte(headerByte(value, headerSize, i));
+            }
+            data.forEachSegment(index, payloadSize, (segment, segmentIndex) -> frames.writeBytes(segment));
+            index += payloadSize;
+        }
+        frames.mark();
+        return frames;
+    }
+
+    private int headerSize(int payloadSize, int flags) {
+        if(field != LengthField.VAR_INT) {
+            return field.maxSize();
+        }
+        int headerSize = 1;
+        int size;
+        while ((size = VarInts.varLongSize(value((long) payloadSize + headerSize, flags))) > headerSize) {
+            headerSize = size;
+        }
+        return headerSize;
+    }
+
+    private long value(long frameSize, int flags) {
+        return frameSize << flagBits | flags;
+    }
+
+    private byte headerByte(long value, int headerSize, int index) {
+        if(field == LengthField.VAR_INT) {
+            byte payload = (byte) (value >>> 7 * index & PAYLOAD_BITS);
+            return index < headerSize - 1 ? (byte) (payload | CONTINUATION_BIT) : payload;
+        }
+        int shift = bigEndian ? headerSize - 1 - index : index;
+        return (byte) (value >>> (shift << 3));
+    }
+
+    /**
+     * Checks if the header read so far is incomplete, which only happens with a variable length field.
+     *
+     * @param buffer the header bytes read from its beginning until its position
+     * @return true if one more byte must be read
+     * @throws IllegalArgumentException if the header is malformed
+     */
+    public boolean needsMore(ByteBuffer buffer) {
+        if(field != LengthField.VAR_INT || (buffer.get(buffer.position() - 1) & CONTINUATION_BIT) == 0) {
+            return false;
+        }
+        if(buffer.position() >= reservedSize()) {
+            throw VarInts.malformed("frame header");
+        }
+        return true;
+    }
+
+    /**
+     * Reads the header.
+     *
+     * @param buffer the header bytes from its position until its limit
+     * @return the header value holding the frame size and flags
+     */
+    public long read(ByteBuffer buffer) {
+        int headerSize = buffer.remaining();
+        long value = 0;
+        for (int i = 0; i < headerSize; i++) {
+            long b = buffer.get() & 0xFF;
+            if(field == LengthField.VAR_INT) {
+                value |= (b & PAYLOAD_BITS) << 7 * i;
+            } else {
+                value |= b << ((bigEndian ? headerSize - 1 - i : i) << 3);
+            }
+        }
+        return value;
+    }
+
+    public long frameSize(long header) {
+        return header >>> flagBits;
+    }
+
+    public boolean isCompressed(long header) {
+        return compressedFlag != 0 && (header & compressedFlag) != 0;
+    }
+
+    public boolean isFragment(long header) {
+        return fragmentFlag != 0 && (header & fragmentFlag) != 0;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.andyalvarezdev.mmocore.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounds the direct memory shared by all buffer pools of a resource pool.
+ *
+ * A pool reserves the memory of its buffers before raising its capacity and gives it back when it trims its idle buffers.
+ */
+public class MemoryBudget {
+
+    private final long limit;
+    private final AtomicLong reserved = new AtomicLong();
+
+    /**
+     * @param limit the max amount of bytes reserved, 0 or less means no limit.
+     */
+    public MemoryBudget(long limit) {
+        this.limit = limit > 0 ? limit : Long.MAX_VALUE;
+    }
+
+    /**
+     * Reserves the memory of as many buffers as the budget allows.
+     *
+     * @param buffers the amount of buffers wanted
+     * @param bufferSize the size of each buffer
+     * @return the amount of buffers reserved, between 0 and buffers
+     */
+    public int reserve(int buffers, int bufferSize) {
+        long current;
+        int granted;
+        do {
+            current = reserved.get();
+            granted = (int) Math.min(buffers, Math.max(0, (limit - current) / bufferSize));
+            if(granted == 0) {
+                return 0;
+            }
+        } while (!reserved.compareAndSet(current, current + (long) granted * bufferSize));
+        return granted;
+    }
+
+    /**
+     * Reserves the memory of the buffers even if the budget is exceeded.
+     */
+    public void forceReserve(int buffers, int bufferSize) {
+        reserved.addAndGet((long) buffers * bufferSize);
+    }
+
+    public void release(int buffers, int bufferSize) {
+        reserved.addAndGet(-(long) buffers * bufferSize);
+    }
+
+    /**
+     * @return the amount of bytes reserved.
+     */
+    public long reserved() {
+        return reserved.get();
+    }
+
+    /**
+     * @return the max amount of bytes reserved or {@link Long#MAX_VALUE} if there is no limit.
+     */
+    public long limit() {
+        return limit;
+    }
+}
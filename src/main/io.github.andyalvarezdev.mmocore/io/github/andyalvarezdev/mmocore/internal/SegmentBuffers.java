@@ -0,0 +1,34 @@
+package io.github.andyalvarezdev.mmocore.internal;
+
+/**
+ * Creates writable buffers backed by memory segments of the Foreign Memory API.
+ *
+ * The memory segments are available since Java 22, this class is replaced by the one packaged in META-INF/versions/22.
+ * On older runtimes there is no implementation and {@link #create()} returns null.
+ */
+public abstract class SegmentBuffers {
+
+    SegmentBuffers() {
+        // only the implementation of Java 22 extends this class
+    }
+
+    /**
+     * @return the segment buffers or null if the runtime doesn't support memory segments.
+     */
+    public static SegmentBuffers create() {
+        return null;
+    }
+
+    /**
+     * Creates a new buffer backed by a memory segment.
+     *
+     * @param initialSize the initial capacity of the buffer
+     * @return a buffer releasing its memory segment on {@link WritableBuffer#releaseResources()}
+     */
+    public abstract WritableBuffer newBuffer(int initialSize);
+
+    /**
+     * Releases all memory segments, the buffers still in use become inaccessible.
+     */
+    public abstract void close();
+}
@@ -0,0 +1,70 @@
+package io.github.andyalvarezdev.mmocore.internal;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A frame written once and sent to many connections.
+ *
+ * Each write takes read-only duplicates of the buffers, so the connections don't share positions.
+ * The frame counts its references, its owner holds the first one and each write in progress holds another.
+ * The buffers return to the pool when the last reference is released.
+ */
+public class SharedBuffers {
+
+    private final WritableBuffer owner;
+    private final ByteBuffer[] buffers;
+    private final int size;
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    public SharedBuffers(WritableBuffer owner, ByteBuffer[] buffers) {
+        this.owner = owner;
+        this.buffers = new ByteBuffer[buffers.length];
+        int total = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            this.buffers[i] = buffers[i].asReadOnlyBuffer().order(buffers[i].order());
+            total += buffers[i].remaining();
+        }
+        this.size = total;
+    }
+
+    /**
+     * @return read-only duplicates of the buffers, ready to be written.
+     */
+    public ByteBuffer[] duplicate() {
+        ByteBuffer[] duplicates = new ByteBuffer[buffers.length];
+        for (int i = 0; i < buffers.length; i++) {
+            duplicates[i] = buffers[i].duplicate().order(buffers[i].order());
+        }
+        return duplicates;
+    }
+
+    /**
+     * @return the amount of bytes of the frame.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Takes a reference to the frame.
+     *
+     * @return false if the frame was already released.
+     */
+    public boolean retain() {
+        int count;
+        do {
+            count = references.get();
+            if(count == 0) {
+                return false;
+            }
+        } while (!references.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    public void release() {
+        if(references.decrementAndGet() == 0) {
+            owner.releaseResources();
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package io.github.andyalvarezdev.mmocore.internal;
 
 import io.github.andyalvarezdev.mmocore.ReadableBuffer;
+import io.github.andyalvarezdev.mmocore.SegmentConsumer;
 
 import java.nio.ByteBuffer;
 
+import static io.github.andyalvarezdev.mmocore.internal.VarInts.PAYLOAD_BITS;
+import static java.util.Objects.isNull;
+
 public class SinglePacketBuffer implements ReadableBuffer {
 
     private final ByteBuffer buffer;
+    private BitReader bitReader;
 
     public SinglePacketBuffer(ByteBuffer buffer) {
         this.buffer = buffer;
@@ -27,6 +32,12 @@ public class SinglePacketBuffer implements ReadableBuffer {
         return buffer.getChar();
     }
 
+    @Override
+    public void readChars(char[] dst, int offset, int length) {
+        buffer.asCharBuffer().get(dst, offset, length);
+        buffer.position(buffer.position() + length * 2);
+    }
+
     @Override
     public int readInt() {
         return buffer.getInt();
@@ -37,6 +48,40 @@ public class SinglePacketBuffer implements ReadableBuffer {
         return buffer.getFloat();
     }
 
+    @Override
+    public long readBits(int bits) {
+        if(isNull(bitReader)) {
+            bitReader = new BitReader(this);
+        }
+        return bitReader.readBits(bits);
+    }
+
+    @Override
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & PAYLOAD_BITS) << shift;
+            if(b >= 0) {
+                return value;
+            }
+        }
+        throw VarInts.malformed("int");
+    }
+
+    @Override
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & PAYLOAD_BITS) << shift;
+            if(b >= 0) {
+                return value;
+            }
+        }
+        throw VarInts.malformed("long");
+    }
+
     @Override
     public long readLong() {
         return buffer.getLong();
@@ -57,6 +102,30 @@ public class SinglePacketBuffer implements ReadableBuffer {
         buffer.get(dst, offset, length);
     }
 
+    @Override
+    public void readShorts(short[] dst, int offset, int length) {
+        buffer.asShortBuffer().get(dst, offset, length);
+        buffer.position(buffer.position() + length * Short.BYTES);
+    }
+
+    @Override
+    public void readInts(int[] dst, int offset, int length) {
+        buffer.asIntBuffer().get(dst, offset, length);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+    }
+
+    @Override
+    public void readLongs(long[] dst, int offset, int length) {
+        buffer.asLongBuffer().get(dst, offset, length);
+        buffer.position(buffer.position() + length * Long.BYTES);
+    }
+
+    @Override
+    public void readFloats(float[] dst, int offset, int length) {
+        buffer.asFloatBuffer().get(dst, offset, length);
+        buffer.position(buffer.position() + length * Float.BYTES);
+    }
+
     @Override
     public int remaining() {
         return buffer.remaining();
@@ -102,4 +171,29 @@ public class SinglePacketBuffer implements ReadableBuffer {
         buffer.putInt(index, value);
     }
 
+    @Override
+    public long readLong(int index) {
+        return buffer.getLong(index);
+    }
+
+    @Override
+    public void writeLong(int index, long value) {
+        buffer.putLong(index, value);
+    }
+
+    @Override
+    public void forEachSegment(int index, int length, SegmentConsumer consumer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if(index < 0 || length < 0 || index + length > limit) {
+            throw new IndexOutOfBoundsException("Trying access index " + index + " until index " + (index + length) + " , max accessible index is " + limit);
+        }
+        buffer.position(index).limit(index + length);
+        try {
+            consumer.accept(buffer, index);
+        } finally {
+            buffer.limit(limit).position(position);
+        }
+    }
+
 }
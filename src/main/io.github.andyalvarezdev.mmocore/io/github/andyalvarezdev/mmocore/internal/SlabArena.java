@@ -0,0 +1,187 @@
+package io.github.andyalvarezdev.mmocore.internal;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+import static java.util.Objects.isNull;
+
+/**
+ * Carves buffers of a single size out of large direct slabs.
+ *
+ * Each slab is sliced into slots once and a bitmap tracks which slots are in use, so taking and releasing a buffer
+ * never allocates. The arena grows by one slab when all slots are in use, the slabs are never released, so the
+ * native memory is reserved up to the highest demand and the GC never processes them.
+ *
+ * The memory of the slabs is reserved from the budget shared by the pools, the arena doesn't grow beyond the budget.
+ */
+public class SlabArena {
+
+    private final int bufferSize;
+    private final int slotsPerSlab;
+    private final MemoryBudget budget;
+    private volatile Slab[] slabs = new Slab[0];
+    private volatile Map<ByteBuffer, Slot> slots = new IdentityHashMap<>();
+
+    /**
+     * Creates an arena reserving the slabs needed to hold the initial amount of buffers.
+     *
+     * The slabs are allocated in parallel, the allocation of a direct buffer zeroes its memory, which pre-touches the pages.
+     *
+     * @param bufferSize the size of the buffers
+     * @param slabSize the max size of each slab
+     * @param initialBuffers the amount of buffers reserved up front, also used as the max amount of buffers per slab
+     * @param budget the budget shared by the pools, the initial slabs are reserved from it even if it's exceeded
+     */
+    public SlabArena(int bufferSize, int slabSize, int initialBuffers, MemoryBudget budget) {
+        this.bufferSize = bufferSize;
+        this.slotsPerSlab = Math.max(1, Math.min(slabSize / bufferSize, initialBuffers));
+        this.budget = budget;
+        int initialSlabs = (initialBuffers + slotsPerSlab - 1) / slotsPerSlab;
+        budget.forceReserve(initialSlabs, slabBytes());
+        addSlabs(IntStream.range(0, initialSlabs).parallel().mapToObj(i -> new Slab()).toArray(Slab[]::new));
+    }
+
+    private int slabBytes() {
+        return slotsPerSlab * bufferSize;
+    }
+
+    /**
+     * @return a buffer taken from a free slot, the arena grows if there is no free slot.
+     * Null if there is no free slot and the budget has no room to a new slab.
+     */
+    public ByteBuffer allocate() {
+        while (true) {
+            Slab[] current = slabs;
+            for (Slab slab : current) {
+                ByteBuffer buffer = slab.allocate();
+                if(buffer != null) {
+                    return buffer;
+                }
+            }
+            if(!grow(current.length)) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Returns the buffer's slot to the arena.
+     *
+     * @param buffer the buffer taken from the arena
+     * @return false if the buffer doesn't belong to the arena
+     */
+    public boolean release(ByteBuffer buffer) {
+        Slot slot = slots.get(buffer);
+        if(isNull(slot)) {
+            return false;
+        }
+        buffer.clear();
+        slot.slab.free(slot.index);
+        return true;
+    }
+
+    /**
+     * @return the amount of buffers held by the slabs.
+     */
+    public int capacity() {
+        return slabs.length * slotsPerSlab;
+    }
+
+    /**
+     * @return the amount of free slots.
+     */
+    public int available() {
+        int available = 0;
+        for (Slab slab : slabs) {
+            available += slab.available();
+        }
+        return available;
+    }
+
+    private synchronized boolean grow(int expectedSlabs) {
+        if(slabs.length != expectedSlabs) {
+            return true;
+        }
+        if(budget.reserve(1, slabBytes()) == 0) {
+            return false;
+        }
+        addSlabs(new Slab());
+        return true;
+    }
+
+    private synchronized void addSlabs(Slab... added) {
+        Map<ByteBuffer, Slot> newSlots = new IdentityHashMap<>(slots);
+        for (Slab slab : added) {
+            for (int i = 0; i < slab.buffers.length; i++) {
+                newSlots.put(slab.buffers[i], new Slot(slab, i));
+            }
+        }
+        Slab[] newSlabs = Arrays.copyOf(slabs, slabs.length + added.length);
+        System.arraycopy(added, 0, newSlabs, slabs.length, added.length);
+        slots = newSlots;
+        slabs = newSlabs;
+    }
+
+    private final class Slab {
+
+        private final ByteBuffer[] buffers = new ByteBuffer[slotsPerSlab];
+        private final AtomicLongArray used = new AtomicLongArray((slotsPerSlab + Long.SIZE - 1) / Long.SIZE);
+
+        private Slab() {
+            ByteBuffer memory = ByteBuffer.allocateDirect(slabBytes());
+            for (int i = 0; i < slotsPerSlab; i++) {
+                buffers[i] = memory.limit((i + 1) * bufferSize).position(i * bufferSize).slice().order(ByteOrder.LITTLE_ENDIAN);
+                memory.clear();
+            }
+            int unused = used.length() * Long.SIZE - slotsPerSlab;
+            if(unused > 0) {
+                used.set(used.length() - 1, -1L << (Long.SIZE - unused));
+            }
+        }
+
+        private ByteBuffer allocate() {
+            for (int i = 0; i < used.length(); i++) {
+                long word;
+                while ((word = used.get(i)) != -1L) {
+                    long free = Long.lowestOneBit(~word);
+                    if(used.compareAndSet(i, word, word | free)) {
+                        return buffers[i * Long.SIZE + Long.numberOfTrailingZeros(free)];
+                    }
+                }
+            }
+            return null;
+        }
+
+        private void free(int index) {
+            long bit = 1L << (index % Long.SIZE);
+            int word = index / Long.SIZE;
+            long current;
+            do {
+                current = used.get(word);
+            } while (!used.compareAndSet(word, current, current & ~bit));
+        }
+
+        private int available() {
+            int inUse = 0;
+            for (int i = 0; i < used.length(); i++) {
+                inUse += Long.bitCount(used.get(i));
+            }
+            return used.length() * Long.SIZE - inUse;
+        }
+    }
+
+    private static final class Slot {
+        private final Slab slab;
+        private final int index;
+
+        private Slot(Slab slab, int index) {
+            this.slab = slab;
+            this.index = index;
+        }
+    }
+}
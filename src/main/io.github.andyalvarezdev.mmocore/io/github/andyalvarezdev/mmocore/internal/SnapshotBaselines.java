@@ -0,0 +1,167 @@
+package io.github.andyalvarezdev.mmocore.internal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Holds the states of the replicated objects sent to a client.
+ *
+ * Each state is encoded as a delta against the last state acknowledged by the client. The whole state is written
+ * when there is no acknowledged state, when it has expired or when too many states are waiting an acknowledgement.
+ *
+ * Encoding: objectId, sequence, baseline sequence (0 when the whole state follows) and the state length as variable
+ * length ints. Then the whole state or a list of runs: the amount of unchanged bytes to skip and, while the end is not
+ * reached, the amount of changed bytes followed by them.
+ */
+public class SnapshotBaselines {
+
+    static final int MAX_PENDING = 32;
+    private static final int MAX_UNCHANGED_GAP = 2;
+    private static final int PURGE_INTERVAL = 256;
+
+    private final Map<Integer, Baseline> baselines = new HashMap<>();
+    private final long timeout;
+    private int writes;
+
+    public SnapshotBaselines(long timeout) {
+        this.timeout = timeout;
+    }
+
+    public synchronized void write(WritableBuffer buffer, int objectId, byte[] state) {
+        long now = System.currentTimeMillis();
+        if(++writes % PURGE_INTERVAL == 0) {
+            purge(now);
+        }
+
+        Baseline baseline = baselines.computeIfAbsent(objectId, id -> new Baseline());
+        baseline.expire(now - timeout);
+        int sequence = baseline.nextSequence();
+
+        buffer.writeVarInt(objectId);
+        buffer.writeVarInt(sequence);
+        buffer.writeVarInt(baseline.ackedSequence);
+        buffer.writeVarInt(state.length);
+        if(isNull(baseline.acked)) {
+            buffer.writeBytes(state);
+        } else {
+            writeRuns(buffer, baseline.acked, state);
+        }
+        baseline.pending.addLast(new Pending(sequence, state.clone(), now));
+    }
+
+    private static void writeRuns(WritableBuffer buffer, byte[] base, byte[] state) {
+        int length = state.length;
+        int position = 0;
+        while (position < length) {
+            int start = position;
+            while (start < length && !differs(base, state, start)) {
+                start++;
+            }
+            buffer.writeVarInt(start - position);
+            if(start == length) {
+                return;
+            }
+
+            int end = start + 1;
+            for (int i = end; i < length && i - end < MAX_UNCHANGED_GAP; i++) {
+                if(differs(base, state, i)) {
+                    end = i + 1;
+                }
+            }
+            buffer.writeVarInt(end - start);
+            buffer.writeBytes(state, start, end - start);
+            position = end;
+        }
+    }
+
+    private static boolean differs(byte[] base, byte[] state, int index) {
+        return index >= base.length || base[index] != state[index];
+    }
+
+    public synchronized void acknowledge(int objectId, int sequence) {
+        Baseline baseline = baselines.get(objectId);
+        if(nonNull(baseline)) {
+            baseline.acknowledge(sequence);
+        }
+    }
+
+    private void purge(long now) {
+        long expiration = now - timeout;
+        baselines.values().removeIf(baseline -> baseline.lastSent() < expiration);
+    }
+
+    private static class Baseline {
+        private final Deque<Pending> pending = new ArrayDeque<>();
+        private byte[] acked;
+        private int ackedSequence;
+        private long ackedSentTime;
+        private int sequence;
+
+        private int nextSequence() {
+            if(++sequence <= 0) {
+                sequence = 1;
+            }
+            return sequence;
+        }
+
+        private void expire(long expiration) {
+            if(nonNull(acked) && ackedSentTime < expiration) {
+                reset();
+            }
+            pending.removeIf(p -> p.sentTime < expiration);
+            if(pending.size() >= MAX_PENDING) {
+                reset();
+                pending.clear();
+            }
+        }
+
+        private void reset() {
+            acked = null;
+            ackedSequence = 0;
+        }
+
+        private void acknowledge(int sequence) {
+            Iterator<Pending> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                Pending p = iterator.next();
+                if(p.sequence == sequence) {
+                    acked = p.state;
+                    ackedSequence = p.sequence;
+                    ackedSentTime = p.sentTime;
+                }
+                if(sequenceBefore(p.sequence, sequence) || p.sequence == sequence) {
+                    iterator.remove();
+                } else {
+                    break;
+                }
+            }
+        }
+
+        private long lastSent() {
+            Pending last = pending.peekLast();
+            return nonNull(last) ? last.sentTime : ackedSentTime;
+        }
+    }
+
+    private static boolean sequenceBefore(int sequence, int other) {
+        return sequence - other < 0;
+    }
+
+    private static class Pending {
+        private final int sequence;
+        private final byte[] state;
+        private final long sentTime;
+
+        private Pending(int sequence, byte[] state, long sentTime) {
+            this.sequence = sequence;
+            this.state = state;
+            this.sentTime = sentTime;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.andyalvarezdev.mmocore.internal;
+
+import io.github.andyalvarezdev.mmocore.ReadableBuffer;
+import io.github.andyalvarezdev.mmocore.Snapshot;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.lang.Math.min;
+import static java.util.Objects.isNull;
+
+/**
+ * Holds the states of the replicated objects received from a connection, so the deltas written by
+ * {@link SnapshotBaselines} can be applied to them.
+ *
+ * A whole state doesn't discard the previous ones, the sender may still acknowledge them and use them as baseline.
+ * The baseline acknowledged by the sender only moves forward, so the states older than the baseline of a delta are discarded.
+ *
+ * The sizes and the object ids are chosen by the peer, so the size of a state is checked before its array is allocated
+ * and the amount of objects tracked is limited.
+ */
+public class SnapshotHistory {
+
+    private static final int MAX_STATES = SnapshotBaselines.MAX_PENDING + 1;
+    private static final int PURGE_INTERVAL = 256;
+
+    private final Map<Integer, Deque<Received>> histories = new HashMap<>();
+    private final long timeout;
+    private final int maxSize;
+    private final int maxObjects;
+    private int reads;
+
+    public SnapshotHistory(long timeout, int maxSize, int maxObjects) {
+        this.timeout = timeout;
+        this.maxSize = maxSize;
+        this.maxObjects = maxObjects;
+    }
+
+    public synchronized Snapshot read(ReadableBuffer buffer) {
+        long now = System.currentTimeMillis();
+        if(++reads % PURGE_INTERVAL == 0) {
+            purge(now);
+        }
+
+        int objectId = buffer.readVarInt();
+        int sequence = buffer.readVarInt();
+        int baselineSequence = buffer.readVarInt();
+        int size = buffer.readVarInt();
+        int maxStateSize = baselineSequence == 0 ? min(maxSize, buffer.remaining()) : maxSize;
+        if(size < 0 || size > maxStateSize) {
+            throw new IllegalArgumentException("Invalid size " + size + " of the state of object " + objectId);
+        }
+
+        Deque<Received> history = historyOf(objectId, now);
+        byte[] data = new byte[size];
+        if(baselineSequence == 0) {
+            buffer.readBytes(data);
+        } else {
+            byte[] baseline = findBaseline(history, objectId, baselineSequence);
+            System.arraycopy(baseline, 0, data, 0, min(baseline.length, data.length));
+            readRuns(buffer, data);
+        }
+
+        Snapshot snapshot = new Snapshot(objectId, sequence, data);
+        history.addLast(new Received(snapshot, now));
+        if(history.size() > MAX_STATES) {
+            history.removeFirst();
+        }
+        return snapshot;
+    }
+
+    private Deque<Received> historyOf(int objectId, long now) {
+        Deque<Received> history = histories.get(objectId);
+        if(isNull(history)) {
+            if(histories.size() >= maxObjects) {
+                purge(now);
+                if(histories.size() >= maxObjects) {
+                    throw new IllegalStateException("Too many replicated objects, the limit is " + maxObjects);
+                }
+            }
+            history = new ArrayDeque<>();
+            histories.put(objectId, history);
+        }
+        return history;
+    }
+
+    private static byte[] findBaseline(Deque<Received> history, int objectId, int baselineSequence) {
+        while (!history.isEmpty() && history.peekFirst().snapshot.getSequence() != baselineSequence) {
+            history.removeFirst();
+        }
+        Received baseline = history.peekFirst();
+        if(isNull(baseline)) {
+            throw new IllegalStateException("There is no baseline " + baselineSequence + " of object " + objectId);
+        }
+        return baseline.snapshot.getData();
+    }
+
+    private static void readRuns(ReadableBuffer buffer, byte[] data) {
+        int position = 0;
+        while (position < data.length) {
+            position += buffer.readVarInt();
+            if(position >= data.length) {
+                return;
+            }
+            int length = buffer.readVarInt();
+            buffer.readBytes(data, position, length);
+            position += length;
+        }
+    }
+
+    private void purge(long now) {
+        long expiration = now - timeout;
+        histories.values().removeIf(history -> history.isEmpty() || history.peekLast().receivedTime < expiration);
+    }
+
+    private static class Received {
+        private final Snapshot snapshot;
+        private final long receivedTime;
+
+        private Received(Snapshot snapshot, long receivedTime) {
+            this.snapshot = snapshot;
+            this.receivedTime = receivedTime;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.github.andyalvarezdev.mmocore.internal;
+
+import static java.lang.Math.max;
+import static java.util.Objects.nonNull;
+
+/**
+ * A bounded cache of Strings decoded from the incoming packets.
+ *
+ * Each string is mapped to a single slot by its hash, a newer string replaces the older one in the same slot.
+ * The slots are written without synchronization, that is safe because Strings are immutable.
+ */
+public class StringCache {
+
+    private static final int MAX_CACHED_LENGTH = 64;
+
+    private final String[] strings;
+    private final int mask;
+
+    public StringCache(int size) {
+        int capacity = Integer.highestOneBit(max(1, size - 1)) << 1;
+        strings = new String[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Get the cached String holding the chars or create a new one.
+     *
+     * @param chars the chars of the String
+     * @param offset the index of the first char
+     * @param length the amount of chars
+     * @return a String equals to the chars
+     */
+    public String get(char[] chars, int offset, int length) {
+        if(length > MAX_CACHED_LENGTH) {
+            return new String(chars, offset, length);
+        }
+
+        int hash = hash(chars, offset, length);
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        String cached = strings[slot];
+        if(nonNull(cached) && contentEquals(cached, chars, offset, length)) {
+            return cached;
+        }
+        String string = new String(chars, offset, length);
+        strings[slot] = string;
+        return string;
+    }
+
+    private static int hash(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return hash;
+    }
+
+    private static boolean contentEquals(String string, char[] chars, int offset, int length) {
+        if(string.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if(string.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.andyalvarezdev.mmocore.internal;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket refilled at a fixed rate up to the tokens of one second.
+ *
+ * The tokens can be taken beyond the bucket, the debt is the time to wait before the bucket has tokens again.
+ * The bucket isn't thread safe, it's used only by the reads of a single connection.
+ */
+public class TokenBucket {
+
+    private static final double SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long rate;
+    private double tokens;
+    private long lastRefill;
+
+    /**
+     * @param tokensPerSecond the tokens refilled each second
+     * @param now the current time in nanoseconds
+     */
+    public TokenBucket(long tokensPerSecond, long now) {
+        this.rate = tokensPerSecond;
+        this.tokens = tokensPerSecond;
+        this.lastRefill = now;
+    }
+
+    /**
+     * Takes the tokens even if the bucket doesn't have them.
+     *
+     * @param amount the amount of tokens
+     * @param now the current time in nanoseconds
+     * @return the nanoseconds to wait until the debt is paid, 0 if the bucket had the tokens
+     */
+    public long take(long amount, long now) {
+        tokens = Math.min(rate, tokens + (now - lastRefill) * rate / SECOND);
+        lastRefill = now;
+        tokens -= amount;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens * SECOND / rate);
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.andyalvarezdev.mmocore.internal;
+
+/**
+ * Helpers to the variable length integers encoding.
+ *
+ * Each byte holds 7 bits of the value, the most significant bit is set when more bytes follow.
+ */
+final class VarInts {
+
+    static final int CONTINUATION_BIT = 0x80;
+    static final int PAYLOAD_BITS = 0x7F;
+
+    private VarInts() {
+        // utility class
+    }
+
+    static int varIntSize(int value) {
+        return (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    static int varLongSize(long value) {
+        return (63 - Long.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    static IllegalArgumentException malformed(String type) {
+        return new IllegalArgumentException("Malformed variable length " + type);
+    }
+}
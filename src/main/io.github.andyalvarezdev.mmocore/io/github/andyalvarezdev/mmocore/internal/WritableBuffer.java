@@ -11,7 +11,7 @@ public interface WritableBuffer extends Buffer {
      * Write a<B>byte</B> to the buffer. <BR>
      * 8bit integer (00)
      *
-     * If the underlying data array can't hold a new byte its size is increased 20%
+     * If the underlying data can't hold a new byte its capacity is increased
      *
      * @param value to be written
      */
@@ -19,6 +19,22 @@ public interface WritableBuffer extends Buffer {
 
     void writeBytes(byte[] value);
 
+    /**
+     * Write <B>length</B> bytes of the array to the buffer, starting from the given offset.
+     *
+     * @param value the array holding the bytes to be written
+     * @param offset the index of the first byte to be written
+     * @param length the amount of bytes to be written
+     */
+    void writeBytes(byte[] value, int offset, int length);
+
+    /**
+     * Write the remaining bytes of the ByteBuffer to the buffer, the ByteBuffer's position is moved to its limit.
+     *
+     * @param value the ByteBuffer holding the bytes to be written
+     */
+    void writeBytes(ByteBuffer value);
+
     /**
      * Write <B>short</B> to the buffer. <BR>
      * 16bit integer (00 00)
@@ -34,6 +50,14 @@ public interface WritableBuffer extends Buffer {
      */
     void writeChar(char value);
 
+    /**
+     * Write the characters of <B>text</B> to the buffer.<BR>
+     * Each character is a 16 bit char
+     *
+     * @param text the characters to be put on data.
+     */
+    void writeChars(CharSequence text);
+
     /**
      * Write <B>int</B> to the buffer. <BR>
      * 32bit integer (00 00 00 00)
@@ -62,6 +86,69 @@ public interface WritableBuffer extends Buffer {
      */
     void writeDouble(double value);
 
+    /**
+     * Write <B>int</B> to the buffer using a variable length. <BR>
+     * 7 bits per byte, from 1 to 5 bytes
+     * @param value to be written
+     */
+    void writeVarInt(int value);
+
+    /**
+     * Write <B>long</B> to the buffer using a variable length. <BR>
+     * 7 bits per byte, from 1 to 10 bytes
+     * @param value to be written
+     */
+    void writeVarLong(long value);
+
+    /**
+     * Write the lower <B>bits</B> of the value to the buffer. <BR>
+     * Consecutive bit fields are packed into the same bytes, starting from the least significant bit.
+     *
+     * @param value holding the bits to be written
+     * @param bits the amount of bits to be written, from 1 to 64
+     */
+    void writeBits(long value, int bits);
+
+    /**
+     * Write the <B>short</B> values to the buffer. <BR>
+     * 16bit integer array (00 00 ...)
+     *
+     * @param values the array holding the values to be written
+     * @param offset the index of the first value to be written
+     * @param length the amount of values to be written
+     */
+    void writeShorts(short[] values, int offset, int length);
+
+    /**
+     * Write the <B>int</B> values to the buffer. <BR>
+     * 32bit integer array (00 00 00 00 ...)
+     *
+     * @param values the array holding the values to be written
+     * @param offset the index of the first value to be written
+     * @param length the amount of values to be written
+     */
+    void writeInts(int[] values, int offset, int length);
+
+    /**
+     * Write the <B>long</B> values to the buffer. <BR>
+     * 64bit integer array (00 00 00 00 00 00 00 00 ...)
+     *
+     * @param values the array holding the values to be written
+     * @param offset the index of the first value to be written
+     * @param length the amount of values to be written
+     */
+    void writeLongs(long[] values, int offset, int length);
+
+    /**
+     * Write the <B>float</B> values to the buffer. <BR>
+     * 32bit float point number array (00 00 00 00 ...)
+     *
+     * @param values the array holding the values to be written
+     * @param offset the index of the first value to be written
+     * @param length the amount of values to be written
+     */
+    void writeFloats(float[] values, int offset, int length);
+
     int position();
 
     void position(int pos);
@@ -2,4 +2,5 @@ module io.github.andyalvarezdev.mmocore {
     requires org.slf4j;
 
     exports io.github.andyalvarezdev.mmocore;
+    exports io.github.andyalvarezdev.mmocore.crypt;
 }
\ No newline at end of file
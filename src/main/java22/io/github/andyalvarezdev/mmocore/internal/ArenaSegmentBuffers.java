@@ -0,0 +1,77 @@
+package io.github.andyalvarezdev.mmocore.internal;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static java.lang.Math.max;
+import static java.util.Objects.isNull;
+
+/**
+ * The segment buffers of Java 22.
+ *
+ * The segments are allocated from a shared {@link Arena} in power of two sizes.
+ * A released segment returns to the free list of its size at once, instead of waiting the Cleaner as a direct buffer does.
+ * The free segments are kept until the arena is closed.
+ */
+final class ArenaSegmentBuffers extends SegmentBuffers {
+
+    private static final int MIN_SHIFT = 6;
+    private static final int MAX_SHIFT = 30;
+
+    private final Arena arena;
+    private final Queue<MemorySegment>[] freeSegments;
+
+    @SuppressWarnings("unchecked")
+    ArenaSegmentBuffers() {
+        arena = Arena.ofShared();
+        freeSegments = new Queue[MAX_SHIFT + 1];
+        for (int i = MIN_SHIFT; i <= MAX_SHIFT; i++) {
+            freeSegments[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Creates a new buffer backed by a memory segment.
+     *
+     * @param initialSize the initial capacity of the buffer
+     * @return a buffer releasing its memory segment on {@link WritableBuffer#releaseResources()}
+     */
+    @Override
+    public WritableBuffer newBuffer(int initialSize) {
+        return new SegmentPacketBuffer(this, initialSize);
+    }
+
+    MemorySegment allocate(long size) {
+        int shift = shiftOf(size);
+        MemorySegment segment = freeSegments[shift].poll();
+        if(isNull(segment)) {
+            segment = arena.allocate(1L << shift, Long.BYTES);
+        }
+        return segment;
+    }
+
+    void release(MemorySegment segment) {
+        freeSegments[shiftOf(segment.byteSize())].offer(segment);
+    }
+
+    private static int shiftOf(long size) {
+        int shift = max(MIN_SHIFT, Long.SIZE - Long.numberOfLeadingZeros(size - 1));
+        if(shift > MAX_SHIFT) {
+            throw new IllegalArgumentException("The segment size " + size + " is larger than the max segment size");
+        }
+        return shift;
+    }
+
+    /**
+     * Releases all memory segments, the buffers still in use become inaccessible.
+     */
+    @Override
+    public void close() {
+        for (int i = MIN_SHIFT; i <= MAX_SHIFT; i++) {
+            freeSegments[i].clear();
+        }
+        arena.close();
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.andyalvarezdev.mmocore.internal;
+
+/**
+ * Creates writable buffers backed by memory segments of the Foreign Memory API.
+ *
+ * This class replaces the one of older runtimes, {@link #create()} returns the buffers allocated from an arena.
+ */
+public abstract class SegmentBuffers {
+
+    SegmentBuffers() {
+        // only ArenaSegmentBuffers extends this class
+    }
+
+    /**
+     * @return the segment buffers or null if the runtime doesn't support memory segments.
+     */
+    public static SegmentBuffers create() {
+        return new ArenaSegmentBuffers();
+    }
+
+    /**
+     * Creates a new buffer backed by a memory segment.
+     *
+     * @param initialSize the initial capacity of the buffer
+     * @return a buffer releasing its memory segment on {@link WritableBuffer#releaseResources()}
+     */
+    public abstract WritableBuffer newBuffer(int initialSize);
+
+    /**
+     * Releases all memory segments, the buffers still in use become inaccessible.
+     */
+    public abstract void close();
+}
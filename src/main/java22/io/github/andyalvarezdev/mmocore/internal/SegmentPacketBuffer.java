@@ -0,0 +1,416 @@
+package io.github.andyalvarezdev.mmocore.internal;
+
+import io.github.andyalvarezdev.mmocore.ReadableBuffer;
+import io.github.andyalvarezdev.mmocore.SegmentConsumer;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static io.github.andyalvarezdev.mmocore.internal.VarInts.CONTINUATION_BIT;
+import static io.github.andyalvarezdev.mmocore.internal.VarInts.PAYLOAD_BITS;
+import static java.lang.Double.doubleToRawLongBits;
+import static java.lang.Double.longBitsToDouble;
+import static java.lang.Float.intBitsToFloat;
+import static java.lang.Math.max;
+import static java.util.Objects.isNull;
+
+/**
+ * A buffer backed by a single memory segment taken from {@link ArenaSegmentBuffers}.
+ *
+ * The segment is replaced by a bigger one when the data doesn't fit on it, the older segment returns to the free list.
+ * The accessors are the constant {@link ValueLayout}s, so the JIT can hoist the bounds checks of the segment.
+ */
+class SegmentPacketBuffer implements WritableBuffer, ReadableBuffer {
+
+    private static final ValueLayout.OfByte BYTE = ValueLayout.JAVA_BYTE;
+    private static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfChar CHAR = ValueLayout.JAVA_CHAR_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfFloat FLOAT = ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private final ArenaSegmentBuffers segmentBuffers;
+    private MemorySegment segment;
+    private ByteBuffer view;
+    private int index;
+    private int limit;
+    private BitWriter bitWriter;
+    private BitReader bitReader;
+
+    SegmentPacketBuffer(ArenaSegmentBuffers segmentBuffers, int size) {
+        this.segmentBuffers = segmentBuffers;
+        use(segmentBuffers.allocate(max(1, size)));
+    }
+
+    private void use(MemorySegment newSegment) {
+        segment = newSegment;
+        view = newSegment.asByteBuffer().order(ByteOrder.LITTLE_ENDIAN);
+        limit = (int) newSegment.byteSize();
+    }
+
+    private void ensureSize(int size) {
+        long capacity = segment.byteSize();
+        if(capacity < size) {
+            MemorySegment newSegment = segmentBuffers.allocate(max(capacity << 1, size));
+            MemorySegment.copy(segment, 0, newSegment, 0, capacity);
+            releaseSegment();
+            use(newSegment);
+        }
+    }
+
+    private void releaseSegment() {
+        if(segment.byteSize() > 0) {
+            segmentBuffers.release(segment);
+        }
+    }
+
+    @Override
+    public void writeByte(byte value) {
+        writeByte(index++, value);
+    }
+
+    @Override
+    public void writeByte(int index, byte value) {
+        ensureSize(index + 1);
+        segment.set(BYTE, index, value);
+    }
+
+    @Override
+    public void writeBytes(byte[] bytes) {
+        writeBytes(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void writeBytes(byte[] bytes, int offset, int length) {
+        ensureSize(index + length);
+        MemorySegment.copy(bytes, offset, segment, BYTE, index, length);
+        index += length;
+    }
+
+    @Override
+    public void writeBytes(ByteBuffer bytes) {
+        int length = bytes.remaining();
+        ensureSize(index + length);
+        MemorySegment.copy(MemorySegment.ofBuffer(bytes), 0, segment, index, length);
+        bytes.position(bytes.limit());
+        index += length;
+    }
+
+    @Override
+    public void writeShort(short value) {
+        writeShort(index, value);
+        index += 2;
+    }
+
+    @Override
+    public void writeShort(int index, short value) {
+        ensureSize(index + 2);
+        segment.set(SHORT, index, value);
+    }
+
+    @Override
+    public void writeChar(char value) {
+        ensureSize(index + 2);
+        segment.set(CHAR, index, value);
+        index += 2;
+    }
+
+    @Override
+    public void writeChars(CharSequence text) {
+        int length = text.length();
+        ensureSize(index + length * 2);
+        for (int i = 0; i < length; i++) {
+            segment.set(CHAR, index, text.charAt(i));
+            index += 2;
+        }
+    }
+
+    @Override
+    public void writeInt(int value) {
+        writeInt(index, value);
+        index += 4;
+    }
+
+    @Override
+    public void writeInt(int index, int value) {
+        ensureSize(index + 4);
+        segment.set(INT, index, value);
+    }
+
+    @Override
+    public void writeFloat(float value) {
+        writeInt(Float.floatToRawIntBits(value));
+    }
+
+    @Override
+    public void writeLong(long value) {
+        writeLong(index, value);
+        index += 8;
+    }
+
+    @Override
+    public void writeLong(int index, long value) {
+        ensureSize(index + 8);
+        segment.set(LONG, index, value);
+    }
+
+    @Override
+    public void writeDouble(double value) {
+        writeLong(doubleToRawLongBits(value));
+    }
+
+    @Override
+    public void writeVarInt(int value) {
+        ensureSize(index + VarInts.varIntSize(value));
+        while ((value & ~PAYLOAD_BITS) != 0) {
+            segment.set(BYTE, index++, (byte) (value & PAYLOAD_BITS | CONTINUATION_BIT));
+            value >>>= 7;
+        }
+        segment.set(BYTE, index++, (byte) value);
+    }
+
+    @Override
+    public void writeVarLong(long value) {
+        ensureSize(index + VarInts.varLongSize(value));
+        while ((value & ~PAYLOAD_BITS) != 0) {
+            segment.set(BYTE, index++, (byte) (value & PAYLOAD_BITS | CONTINUATION_BIT));
+            value >>>= 7;
+        }
+        segment.set(BYTE, index++, (byte) value);
+    }
+
+    @Override
+    public void writeBits(long value, int bits) {
+        if(isNull(bitWriter)) {
+            bitWriter = new BitWriter(this);
+        }
+        bitWriter.writeBits(value, bits);
+    }
+
+    @Override
+    public void writeShorts(short[] values, int offset, int length) {
+        ensureSize(index + length * Short.BYTES);
+        MemorySegment.copy(values, offset, segment, SHORT, index, length);
+        index += length * Short.BYTES;
+    }
+
+    @Override
+    public void writeInts(int[] values, int offset, int length) {
+        ensureSize(index + length * Integer.BYTES);
+        MemorySegment.copy(values, offset, segment, INT, index, length);
+        index += length * Integer.BYTES;
+    }
+
+    @Override
+    public void writeLongs(long[] values, int offset, int length) {
+        ensureSize(index + length * Long.BYTES);
+        MemorySegment.copy(values, offset, segment, LONG, index, length);
+        index += length * Long.BYTES;
+    }
+
+    @Override
+    public void writeFloats(float[] values, int offset, int length) {
+        ensureSize(index + length * Float.BYTES);
+        MemorySegment.copy(values, offset, segment, FLOAT, index, length);
+        index += length * Float.BYTES;
+    }
+
+    @Override
+    public int position() {
+        return index;
+    }
+
+    @Override
+    public void position(int pos) {
+        index = pos;
+    }
+
+    @Override
+    public byte readByte() {
+        return segment.get(BYTE, index++);
+    }
+
+    @Override
+    public byte readByte(int index) {
+        return segment.get(BYTE, index);
+    }
+
+    @Override
+    public short readShort() {
+        short value = segment.get(SHORT, index);
+        index += 2;
+        return value;
+    }
+
+    @Override
+    public short readShort(int index) {
+        return segment.get(SHORT, index);
+    }
+
+    @Override
+    public char readChar() {
+        char value = segment.get(CHAR, index);
+        index += 2;
+        return value;
+    }
+
+    @Override
+    public void readChars(char[] dst, int offset, int length) {
+        MemorySegment.copy(segment, CHAR, index, dst, offset, length);
+        index += length * Character.BYTES;
+    }
+
+    @Override
+    public int readInt() {
+        int value = segment.get(INT, index);
+        index += 4;
+        return value;
+    }
+
+    @Override
+    public int readInt(int index) {
+        return segment.get(INT, index);
+    }
+
+    @Override
+    public float readFloat() {
+        return intBitsToFloat(readInt());
+    }
+
+    @Override
+    public long readBits(int bits) {
+        if(isNull(bitReader)) {
+            bitReader = new BitReader(this);
+        }
+        return bitReader.readBits(bits);
+    }
+
+    @Override
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            byte b = segment.get(BYTE, index++);
+            value |= (b & PAYLOAD_BITS) << shift;
+            if(b >= 0) {
+                return value;
+            }
+        }
+        throw VarInts.malformed("int");
+    }
+
+    @Override
+    public long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = segment.get(BYTE, index++);
+            value |= (long) (b & PAYLOAD_BITS) << shift;
+            if(b >= 0) {
+                return value;
+            }
+        }
+        throw VarInts.malformed("long");
+    }
+
+    @Override
+    public long readLong() {
+        long value = segment.get(LONG, index);
+        index += 8;
+        return value;
+    }
+
+    @Override
+    public long readLong(int index) {
+        return segment.get(LONG, index);
+    }
+
+    @Override
+    public double readDouble() {
+        return longBitsToDouble(readLong());
+    }
+
+    @Override
+    public void readBytes(byte[] dst) {
+        readBytes(dst, 0, dst.length);
+    }
+
+    @Override
+    public void readBytes(byte[] dst, int offset, int length) {
+        MemorySegment.copy(segment, BYTE, index, dst, offset, length);
+        index += length;
+    }
+
+    @Override
+    public void readShorts(short[] dst, int offset, int length) {
+        MemorySegment.copy(segment, SHORT, index, dst, offset, length);
+        index += length * Short.BYTES;
+    }
+
+    @Override
+    public void readInts(int[] dst, int offset, int length) {
+        MemorySegment.copy(segment, INT, index, dst, offset, length);
+        index += length * Integer.BYTES;
+    }
+
+    @Override
+    public void readLongs(long[] dst, int offset, int length) {
+        MemorySegment.copy(segment, LONG, index, dst, offset, length);
+        index += length * Long.BYTES;
+    }
+
+    @Override
+    public void readFloats(float[] dst, int offset, int length) {
+        MemorySegment.copy(segment, FLOAT, index, dst, offset, length);
+        index += length * Float.BYTES;
+    }
+
+    @Override
+    public void forEachSegment(int index, int length, SegmentConsumer consumer) {
+        if(index < 0 || length < 0 || index + length > limit) {
+            throw new IndexOutOfBoundsException("Trying access index " + index + " until index " + (index + length) + " , max accessible index is " + limit);
+        }
+        view.limit(index + length).position(index);
+        try {
+            consumer.accept(view, index);
+        } finally {
+            view.clear();
+        }
+    }
+
+    @Override
+    public int limit() {
+        return limit;
+    }
+
+    @Override
+    public void limit(int newLimit) {
+        ensureSize(newLimit);
+        limit = newLimit;
+    }
+
+    @Override
+    public void mark() {
+        limit = index;
+    }
+
+    @Override
+    public ByteBuffer[] toByteBuffers() {
+        ByteBuffer buffer = view.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        return new ByteBuffer[] { buffer.limit(limit) };
+    }
+
+    @Override
+    public void releaseResources() {
+        releaseSegment();
+        use(MemorySegment.NULL);
+        index = 0;
+        bitWriter = null;
+        bitReader = null;
+    }
+
+    @Override
+    public int remaining() {
+        return limit - index;
+    }
+}
@@ -62,6 +62,112 @@ public class ArrayPacketBufferTest {
 
     }
 
+    @Test
+    public void testChars() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        ArrayPacketBuffer buffer = new ArrayPacketBuffer(2, resourcePool);
+
+        buffer.writeChars("Async\u00e7");
+        Assert.assertEquals(12, buffer.position());
+
+        buffer.position(0);
+        char[] chars = new char[8];
+        buffer.readChars(chars, 1, 6);
+        Assert.assertEquals("Async\u00e7", new String(chars, 1, 6));
+        Assert.assertEquals(12, buffer.position());
+    }
+
+    @Test
+    public void testBulk() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        ArrayPacketBuffer buffer = new ArrayPacketBuffer(2, resourcePool);
+
+        buffer.writeShorts(new short[] { 1, -2, 3 }, 1, 2);
+        buffer.writeInts(new int[] { 4, -5, Integer.MAX_VALUE }, 0, 3);
+        buffer.writeLongs(new long[] { 6, Long.MIN_VALUE }, 0, 2);
+        buffer.writeFloats(new float[] { 7.5f, -8.25f }, 0, 2);
+        Assert.assertEquals(2 * 2 + 3 * 4 + 2 * 8 + 2 * 4, buffer.position());
+
+        buffer.position(0);
+        Assert.assertEquals(-2, buffer.readShort());
+        Assert.assertEquals(3, buffer.readShort());
+        buffer.position(0);
+
+        short[] shorts = new short[3];
+        buffer.readShorts(shorts, 1, 2);
+        int[] ints = new int[3];
+        buffer.readInts(ints, 0, 3);
+        long[] longs = new long[2];
+        buffer.readLongs(longs, 0, 2);
+        float[] floats = new float[2];
+        buffer.readFloats(floats, 0, 2);
+
+        Assert.assertArrayEquals(new short[] { 0, -2, 3 }, shorts);
+        Assert.assertArrayEquals(new int[] { 4, -5, Integer.MAX_VALUE }, ints);
+        Assert.assertArrayEquals(new long[] { 6, Long.MIN_VALUE }, longs);
+        Assert.assertArrayEquals(new float[] { 7.5f, -8.25f }, floats, 0);
+    }
+
+    @Test
+    public void testVarInt() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        ArrayPacketBuffer buffer = new ArrayPacketBuffer(1, resourcePool);
+
+        int[] ints = { 0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE };
+        long[] longs = { 0, 127, 128, Long.MAX_VALUE, -1, Long.MIN_VALUE };
+        for (int value : ints) {
+            buffer.writeVarInt(value);
+        }
+        for (long value : longs) {
+            buffer.writeVarLong(value);
+        }
+        Assert.assertEquals(1 + 1 + 1 + 2 + 2 + 3 + 5 + 5 + 5 + 1 + 1 + 2 + 9 + 10 + 10, buffer.position());
+
+        buffer.position(0);
+        for (int value : ints) {
+            Assert.assertEquals(value, buffer.readVarInt());
+        }
+        for (long value : longs) {
+            Assert.assertEquals(value, buffer.readVarLong());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedVarInt() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        ArrayPacketBuffer buffer = new ArrayPacketBuffer(6, resourcePool);
+        buffer.writeBytes(new byte[] { -1, -1, -1, -1, -1, 1 });
+        buffer.position(0);
+        buffer.readVarInt();
+    }
+
+    @Test
+    public void testBits() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        ArrayPacketBuffer buffer = new ArrayPacketBuffer(1, resourcePool);
+
+        buffer.writeBits(1, 1);
+        buffer.writeBits(5, 3);
+        buffer.writeBits(0x1FF, 9);
+        buffer.writeShort((short) 7);
+        buffer.writeBits(0, 1);
+        buffer.writeBits(Long.MIN_VALUE + 3, 64);
+        Assert.assertEquals(2 + 2 + 9, buffer.position());
+
+        buffer.position(0);
+        Assert.assertEquals(1, buffer.readBits(1));
+        Assert.assertEquals(5, buffer.readBits(3));
+        Assert.assertEquals(0x1FF, buffer.readBits(9));
+        Assert.assertEquals(7, buffer.readShort());
+        Assert.assertEquals(0, buffer.readBits(1));
+        Assert.assertEquals(Long.MIN_VALUE + 3, buffer.readBits(64));
+    }
+
     @Test
     public void testReleaseResources() {
         ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
@@ -77,4 +183,24 @@ public class ArrayPacketBufferTest {
         Assert.assertEquals(10, buffer.limit());
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testSegments() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        ArrayPacketBuffer buffer = new ArrayPacketBuffer(4, resourcePool);
+        buffer.writeLong(1);
+        buffer.writeLong(2);
+        buffer.mark();
+
+        buffer.writeLong(8, 0x0102030405060708L);
+        Assert.assertEquals(1, buffer.readLong(0));
+        Assert.assertEquals(0x0102030405060708L, buffer.readLong(8));
+
+        buffer.forEachSegment(8, 8, (segment, index) -> {
+            Assert.assertEquals(8, index);
+            Assert.assertEquals(8, segment.remaining());
+            segment.putLong(segment.getLong(segment.position()) + 1);
+        });
+        Assert.assertEquals(0x0102030405060709L, buffer.readLong(8));
+    }
+}
@@ -23,6 +23,13 @@ public class AsyncClientPingPacket extends WritablePacket<AsyncClient> {
         writeInt(false);
         writeBytes(null);
         writeBytes(new byte[4]);
+        writeVarInt(300);
+        writeZigZagInt(-2);
+        writeZigZagLong(Long.MIN_VALUE);
+        writeBit(true);
+        writeBitMask(true, false, true);
+        writeBits(5, 3);
+        writeQuantizedFloat(0.5f, -1, 1, 10);
         return true;
     }
 }
\ No newline at end of file
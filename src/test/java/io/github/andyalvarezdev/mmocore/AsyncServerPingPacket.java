@@ -20,6 +20,13 @@ public class AsyncServerPingPacket extends ReadablePacket<AsyncClient> {
     private boolean falseShortBoolean;
     private boolean trueIntBoolean;
     private boolean falseIntBoolean;
+    private int varInt300;
+    private int zigZagInt;
+    private long zigZagLong;
+    private boolean bit;
+    private long bitMask;
+    private long bits;
+    private float quantizedFloat;
 
     @Override
     protected boolean read() {
@@ -41,6 +48,13 @@ public class AsyncServerPingPacket extends ReadablePacket<AsyncClient> {
             trueIntBoolean = readIntAsBoolean();
             falseIntBoolean = readIntAsBoolean();
             readBytes(new byte[4], 0, 4);
+            varInt300 = readVarInt();
+            zigZagInt = readZigZagInt();
+            zigZagLong = readZigZagLong();
+            bit = readBit();
+            bitMask = readBitMask(3);
+            bits = readBits(3);
+            quantizedFloat = readQuantizedFloat(-1, 1, 10);
         }
         return true;
     }
@@ -64,6 +78,13 @@ public class AsyncServerPingPacket extends ReadablePacket<AsyncClient> {
             Assert.assertFalse(falseShortBoolean);
             Assert.assertTrue(trueIntBoolean);
             Assert.assertFalse(falseIntBoolean);
+            Assert.assertEquals(300, varInt300);
+            Assert.assertEquals(-2, zigZagInt);
+            Assert.assertEquals(Long.MIN_VALUE, zigZagLong);
+            Assert.assertTrue(bit);
+            Assert.assertEquals(0b101, bitMask);
+            Assert.assertEquals(5, bits);
+            Assert.assertEquals(0.5f, quantizedFloat, 2f / 1023);
         } catch (Exception e) {
             CommunicationTest.shutdown(false);
         }
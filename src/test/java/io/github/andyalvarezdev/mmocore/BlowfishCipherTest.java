@@ -0,0 +1,102 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.crypt.BlowfishCipher;
+import io.github.andyalvarezdev.mmocore.internal.ArrayPacketBuffer;
+import io.github.andyalvarezdev.mmocore.internal.DynamicPacketBuffer;
+import io.github.andyalvarezdev.mmocore.internal.WritableBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+
+public class BlowfishCipherTest {
+
+    private static final byte[] KEY = "_;v.]05-31!|+-%xT!^[$".getBytes();
+
+    private static WritableBuffer buffer(byte[] data) {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        config.newBufferGroup(4, 32);
+        WritableBuffer buffer = new DynamicPacketBuffer(ByteBuffer.allocateDirect(30).order(ByteOrder.LITTLE_ENDIAN), ResourcePool.initialize(config));
+        buffer.writeBytes(data);
+        buffer.mark();
+        return buffer;
+    }
+
+    private static byte[] bytes(Buffer buffer, int offset, int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = buffer.readByte(offset + i);
+        }
+        return bytes;
+    }
+
+    private static byte[] reference(byte[] key, byte[] data, int mode) throws Exception {
+        Cipher cipher = Cipher.getInstance("Blowfish/ECB/NoPadding");
+        cipher.init(mode, new SecretKeySpec(key, "Blowfish"));
+        return cipher.doFinal(data);
+    }
+
+    private static byte[] swapWords(byte[] data) {
+        byte[] swapped = new byte[data.length];
+        for (int i = 0; i < data.length; i += 4) {
+            for (int j = 0; j < 4; j++) {
+                swapped[i + j] = data[i + 3 - j];
+            }
+        }
+        return swapped;
+    }
+
+    @Test
+    public void testKnownVector() {
+        ArrayPacketBuffer buffer = new ArrayPacketBuffer(8, ResourcePool.initialize(new ConnectionConfig<>(null, null, null)));
+        buffer.writeLong(0);
+        buffer.mark();
+        new BlowfishCipher(new byte[8], ByteOrder.BIG_ENDIAN).encrypt(buffer, 0, 8);
+        Assert.assertArrayEquals(new byte[] { 0x4E, (byte) 0xF9, (byte) 0x97, 0x45, 0x61, (byte) 0x98, (byte) 0xDD, 0x78 }, bytes(buffer, 0, 8));
+    }
+
+    @Test
+    public void testReferenceCompatibility() throws Exception {
+        byte[] data = new byte[256];
+        new Random(5).nextBytes(data);
+        BlowfishCipher cipher = new BlowfishCipher(KEY, ByteOrder.BIG_ENDIAN);
+
+        WritableBuffer buffer = buffer(data);
+        cipher.encrypt(buffer, 16, 232);
+        byte[] expected = data.clone();
+        System.arraycopy(reference(KEY, Arrays.copyOfRange(data, 16, 248), Cipher.ENCRYPT_MODE), 0, expected, 16, 232);
+        Assert.assertArrayEquals(expected, bytes(buffer, 0, data.length));
+
+        cipher.decrypt(buffer, 16, 232);
+        Assert.assertArrayEquals(data, bytes(buffer, 0, data.length));
+    }
+
+    @Test
+    public void testLittleEndianHalves() throws Exception {
+        byte[] data = new byte[64];
+        new Random(7).nextBytes(data);
+        WritableBuffer buffer = buffer(data);
+        new BlowfishCipher(KEY, ByteOrder.LITTLE_ENDIAN).encrypt(buffer, 0, data.length);
+        byte[] expected = swapWords(reference(KEY, swapWords(data), Cipher.ENCRYPT_MODE));
+        Assert.assertArrayEquals(expected, bytes(buffer, 0, data.length));
+    }
+
+    @Test
+    public void testCodecPadding() {
+        byte[] data = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11 };
+        WritableBuffer buffer = buffer(data);
+        BlowfishCipher cipher = new BlowfishCipher(KEY, ByteOrder.LITTLE_ENDIAN);
+        Assert.assertTrue(cipher.encode(buffer, 1, 10));
+        Assert.assertEquals(17, buffer.limit());
+
+        Assert.assertTrue(cipher.decode(buffer, 1, 16));
+        byte[] expected = Arrays.copyOf(data, 17);
+        Assert.assertArrayEquals(expected, bytes(buffer, 0, 17));
+        Assert.assertFalse(cipher.decode(buffer, 1, 15));
+    }
+}
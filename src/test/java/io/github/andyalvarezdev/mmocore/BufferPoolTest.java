@@ -0,0 +1,97 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.BufferPool;
+import io.github.andyalvarezdev.mmocore.internal.MemoryBudget;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.isNull;
+
+public class BufferPoolTest {
+
+    private static final long WINDOW = TimeUnit.HOURS.toNanos(1);
+
+    @Test
+    public void testGrowOnMisses() {
+        MemoryBudget budget = new MemoryBudget(0);
+        BufferPool pool = new BufferPool(4, 64);
+        pool.useTuning(WINDOW, budget);
+        takeAndRecycle(pool, 10);
+        Assert.assertEquals(4, pool.idle());
+        Assert.assertEquals(10, pool.misses());
+
+        pool.tune();
+        Assert.assertEquals(14, pool.capacity());
+        Assert.assertEquals(1, pool.grows());
+        Assert.assertEquals(14 * 64, budget.reserved());
+
+        takeAndRecycle(pool, 10);
+        Assert.assertEquals(10, pool.idle());
+    }
+
+    @Test
+    public void testGrowWithinBudget() {
+        MemoryBudget budget = new MemoryBudget(6 * 64);
+        BufferPool pool = new BufferPool(4, 64);
+        pool.useTuning(WINDOW, budget);
+        takeAndRecycle(pool, 10);
+
+        pool.tune();
+        Assert.assertEquals(6, pool.capacity());
+        Assert.assertEquals(6 * 64, budget.reserved());
+
+        takeAndRecycle(pool, 10);
+        pool.tune();
+        Assert.assertEquals(6, pool.capacity());
+    }
+
+    @Test
+    public void testTrimIdleBuffers() {
+        MemoryBudget budget = new MemoryBudget(0);
+        BufferPool pool = new BufferPool(16, 64);
+        pool.initialize(1);
+        pool.useTuning(WINDOW, budget);
+
+        pool.tune();
+        Assert.assertEquals(10, pool.capacity());
+        Assert.assertEquals(10, pool.idle());
+        for (int i = 0; i < 4; i++) {
+            pool.tune();
+        }
+
+        BufferPoolMetrics metrics = new BufferPoolMetrics(pool);
+        Assert.assertEquals(4, metrics.capacity());
+        Assert.assertEquals(4, metrics.idle());
+        Assert.assertEquals(4, metrics.trims());
+        Assert.assertEquals(4 * 64, budget.reserved());
+    }
+
+    @Test
+    public void testKeepCapacityInUse() {
+        BufferPool pool = new BufferPool(8, 64);
+        pool.initialize(1);
+        pool.useTuning(WINDOW, new MemoryBudget(0));
+        takeAndRecycle(pool, 8);
+
+        pool.tune();
+        Assert.assertEquals(8, pool.capacity());
+        Assert.assertEquals(0, pool.trims());
+        Assert.assertEquals(0, pool.grows());
+    }
+
+    private static void takeAndRecycle(BufferPool pool, int amount) {
+        List<ByteBuffer> taken = new ArrayList<>();
+        for (int i = 0; i < amount; i++) {
+            ByteBuffer buffer = pool.get();
+            taken.add(isNull(buffer) ? ByteBuffer.allocateDirect(64) : buffer);
+        }
+        Assert.assertEquals(amount, pool.inUse());
+        taken.forEach(pool::recycle);
+        Assert.assertEquals(0, pool.inUse());
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.SharedBuffers;
+import io.github.andyalvarezdev.mmocore.internal.WritableBuffer;
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CachedPacketTest {
+
+    @Test
+    public void testSharedBuffersRelease() {
+        ResourcePool resourcePool = ResourcePool.initialize(new ConnectionConfig<>(null, null, null));
+        WritableBuffer data = WritableBuffer.dynamicOf(resourcePool.getSegmentBuffer(), resourcePool);
+        data.writeInt(10);
+        data.mark();
+        SharedBuffers frame = new SharedBuffers(data, data.toByteBuffers());
+        Assert.assertEquals(4, frame.size());
+
+        ByteBuffer duplicate = frame.duplicate()[0];
+        Assert.assertTrue(duplicate.isReadOnly());
+        Assert.assertEquals(10, duplicate.getInt());
+        Assert.assertEquals(4, frame.duplicate()[0].remaining());
+
+        Assert.assertTrue(frame.retain());
+        frame.release();
+        frame.release();
+        Assert.assertFalse(frame.retain());
+    }
+
+    @Test
+    public void testCachedPacket() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+        Queue<Integer> received = new ConcurrentLinkedQueue<>();
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> {
+            received.add(buffer.readInt());
+            return null;
+        }, packet -> { }).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            Connector<AsyncClient> connector = Connector.create(CountingClient::new, null, null);
+            CountingClient copying = (CountingClient) connector.connect(socketAddress);
+            CountingClient sharing = (CountingClient) Connector.create(SharingClient::new, null, null).connect(socketAddress);
+
+            ValuePacket packet = new ValuePacket();
+            packet.value = 7;
+            CachedPacket<AsyncClient> cached = new CachedPacket<>(packet);
+            copying.sendPacket(cached);
+            copying.sendPacket(cached);
+            sharing.sendPacket(cached);
+            sharing.sendPacket(cached);
+            sharing.sendPacket(cached);
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 5);
+            Assert.assertTrue(received.stream().allMatch(value -> value == 7));
+            Assert.assertEquals(1, packet.writes.get());
+            Assert.assertEquals(2, copying.encryptions.get());
+            Assert.assertEquals(1, sharing.encryptions.get());
+
+            received.clear();
+            packet.value = 8;
+            cached.invalidate();
+            sharing.sendPacket(cached);
+            copying.sendPacket(cached);
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 2);
+            Assert.assertTrue(received.stream().allMatch(value -> value == 8));
+            Assert.assertEquals(2, packet.writes.get());
+        } finally {
+            handler.shutdown();
+            handler.join();
+        }
+    }
+
+    static class ValuePacket extends WritablePacket<AsyncClient> {
+
+        private final AtomicInteger writes = new AtomicInteger();
+        private volatile int value;
+
+        @Override
+        protected boolean write(AsyncClient client) {
+            writes.incrementAndGet();
+            writeInt(value);
+            return true;
+        }
+    }
+
+    static class CountingClient extends AsyncClient {
+
+        private final AtomicInteger encryptions = new AtomicInteger();
+
+        CountingClient(Connection<AsyncClient> connection) {
+            super(connection);
+        }
+
+        @Override
+        public boolean encrypt(Buffer data, int offset, int size) {
+            encryptions.incrementAndGet();
+            return true;
+        }
+    }
+
+    static class SharingClient extends CountingClient {
+
+        SharingClient(Connection<AsyncClient> connection) {
+            super(connection);
+        }
+
+        @Override
+        protected boolean isEncryptionEnabled() {
+            return false;
+        }
+    }
+}
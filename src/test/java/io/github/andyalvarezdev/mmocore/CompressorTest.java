@@ -0,0 +1,146 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.Compressor;
+import io.github.andyalvarezdev.mmocore.internal.WritableBuffer;
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class CompressorTest {
+
+    private static final int HEADER_SIZE = 2;
+    private static final int MAX_PAYLOAD_SIZE = 0xFFFF;
+    private static final byte[] DICTIONARY = "inventory item".getBytes();
+
+    private static byte[] payload(int size) {
+        byte[] payload = new byte[size];
+        for (int i = 0; i < size; i++) {
+            payload[i] = (byte) (i % 13);
+        }
+        return payload;
+    }
+
+    private static WritableBuffer frame(byte[] payload, ResourcePool resourcePool) {
+        WritableBuffer frame = WritableBuffer.dynamicOf(resourcePool.getSegmentBuffer(), resourcePool);
+        frame.position(HEADER_SIZE);
+        frame.writeBytes(payload);
+        frame.mark();
+        return frame;
+    }
+
+    private static byte[] roundTrip(Compressor compressor, byte[] payload) {
+        ResourcePool resourcePool = ResourcePool.initialize(new ConnectionConfig<>(null, null, null));
+        WritableBuffer compressed = compressor.compress(frame(payload, resourcePool), HEADER_SIZE, resourcePool);
+        Assert.assertNotNull(compressed);
+        Assert.assertTrue(compressed.limit() < payload.length);
+
+        ByteBuffer[] buffers = compressed.toByteBuffers();
+        Assert.assertEquals(1, buffers.length);
+        ByteBuffer incoming = buffers[0].position(HEADER_SIZE);
+        ReadableBuffer readable = ReadableBuffer.of(incoming);
+        int size = readable.readVarInt();
+        ByteBuffer uncompressed = compressor.decompress(readable, incoming.position(), readable.remaining(), size, resourcePool);
+
+        byte[] data = new byte[uncompressed.remaining()];
+        uncompressed.get(data);
+        return data;
+    }
+
+    @Test
+    public void testRoundTrip() {
+        byte[] payload = payload(2000);
+        Assert.assertArrayEquals(payload, roundTrip(new Compressor(100, null, MAX_PAYLOAD_SIZE, MAX_PAYLOAD_SIZE, 2), payload));
+    }
+
+    @Test
+    public void testRoundTripWithDictionary() {
+        byte[] payload = payload(1000);
+        Assert.assertArrayEquals(payload, roundTrip(new Compressor(100, DICTIONARY, MAX_PAYLOAD_SIZE, MAX_PAYLOAD_SIZE, 2), payload));
+        Assert.assertArrayEquals(payload, roundTrip(new Compressor(100, DICTIONARY, MAX_PAYLOAD_SIZE, MAX_PAYLOAD_SIZE, 2), payload));
+    }
+
+    @Test
+    public void testBelowThreshold() {
+        ResourcePool resourcePool = ResourcePool.initialize(new ConnectionConfig<>(null, null, null));
+        Assert.assertNull(new Compressor(100, null, MAX_PAYLOAD_SIZE, MAX_PAYLOAD_SIZE, 2).compress(frame(payload(99), resourcePool), HEADER_SIZE, resourcePool));
+    }
+
+    @Test
+    public void testIncompressible() {
+        ResourcePool resourcePool = ResourcePool.initialize(new ConnectionConfig<>(null, null, null));
+        byte[] payload = new byte[300];
+        new Random(7).nextBytes(payload);
+        Assert.assertNull(new Compressor(100, null, MAX_PAYLOAD_SIZE, MAX_PAYLOAD_SIZE, 2).compress(frame(payload, resourcePool), HEADER_SIZE, resourcePool));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformed() {
+        ResourcePool resourcePool = ResourcePool.initialize(new ConnectionConfig<>(null, null, null));
+        new Compressor(100, null, MAX_PAYLOAD_SIZE, MAX_PAYLOAD_SIZE, 2).decompress(ReadableBuffer.of(ByteBuffer.wrap(payload(50))), 0, 50, 100, resourcePool);
+    }
+
+    @Test
+    public void testUncompressedSizeAboveMaxPacketSize() {
+        ConnectionConfig<AsyncClient> config = new ConnectionConfig<>(null, null, null);
+        config.compressionThreshold = 100;
+        config.lengthField = LengthField.INT;
+        config.maxFrameSize = 4096;
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        ReadableBuffer frame = ReadableBuffer.of(ByteBuffer.wrap(payload(4)));
+        try {
+            resourcePool.getCompressor().decompress(frame, 0, 4, 1 << 29, resourcePool);
+            Assert.fail("Exception is Expected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Invalid compressed payload size"));
+            Assert.assertEquals(0, resourcePool.getDirectMemoryInUse());
+        }
+
+        config.fragmentation = true;
+        config.maxReassembledSize = 8192;
+        resourcePool = ResourcePool.initialize(config);
+        try {
+            resourcePool.getCompressor().decompress(frame, 0, 4, 8193, resourcePool);
+            Assert.fail("Exception is Expected");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Invalid compressed payload size"));
+            Assert.assertEquals(0, resourcePool.getDirectMemoryInUse());
+        }
+    }
+
+    @Test
+    public void testCompressedPacket() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+        byte[] payload = payload(5000);
+        AtomicReference<byte[]> received = new AtomicReference<>();
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> {
+            byte[] data = new byte[buffer.remaining()];
+            buffer.readBytes(data);
+            received.set(data);
+            return null;
+        }, packet -> { }).shutdownWaitTime(100).compression(512, DICTIONARY).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).compression(512, DICTIONARY).connect(socketAddress);
+            client.sendPacket(new WritablePacket<>() {
+                @Override
+                protected boolean write(AsyncClient client) {
+                    writeBytes(payload);
+                    return true;
+                }
+            });
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.get() != null);
+            Assert.assertArrayEquals(payload, received.get());
+        } finally {
+            handler.shutdown();
+            handler.join();
+        }
+    }
+}
@@ -3,6 +3,8 @@ package io.github.andyalvarezdev.mmocore;
 import org.junit.After;
 import org.junit.Test;
 
+import java.util.Set;
+
 import static java.lang.Math.max;
 import static java.lang.Runtime.getRuntime;
 import static org.junit.Assert.assertEquals;
@@ -22,6 +24,13 @@ public class ConfigurationTest {
 
     }
 
+    @Test
+    public void testDefaultBufferPools() {
+        ConnectionConfig<AsyncClient> config = new ConnectionConfig<>(null, null, null);
+        config.complete();
+        assertEquals(Set.of(16384, 32768, 65536), config.bufferPools.keySet());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testNonExistentConfigurationFile() {
         System.setProperty("async-mmocore.configurationFile", "/async-mmocore-nonexistent.properties");
@@ -9,8 +9,11 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.AsynchronousSocketChannel;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Objects.nonNull;
 
@@ -27,7 +30,7 @@ public class ConnectionTest {
         buffer.putLong(80);
         buffer.flip();
         connection.write();
-        connection.write(new ByteBuffer[] {buffer});
+        connection.write(null, new ByteBuffer[] {buffer});
     }
 
     @Test
@@ -71,6 +74,29 @@ public class ConnectionTest {
         }
     }
 
+    @Test
+    public void testIdleConnectionsHoldNoDirectMemory() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+        AtomicInteger received = new AtomicInteger();
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> {
+            received.incrementAndGet();
+            return null;
+        }, null).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            List<AsyncClient> clients = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                clients.add(Connector.create(AsyncClient::new, null, null).connect(socketAddress));
+            }
+            clients.forEach(client -> client.sendPacket(new AsyncClientPingPacket()));
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.get() == 10);
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> handler.getResourcePool().getDirectMemoryInUse() == 0);
+        } finally {
+            handler.shutdown();
+            handler.join();
+        }
+    }
+
     private AsyncClient buildClient(Connection<AsyncClient> tConnection) {
         connectionClient = new AsyncClient(tConnection);
         return connectionClient;
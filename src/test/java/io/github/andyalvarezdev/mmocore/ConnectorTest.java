@@ -0,0 +1,146 @@
+package io.github.andyalvarezdev.mmocore;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.AsynchronousChannelGroup;
+import java.nio.channels.AsynchronousSocketChannel;
+import java.nio.channels.InterruptedByTimeoutException;
+import java.nio.channels.UnresolvedAddressException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class ConnectorTest {
+
+    private final InetSocketAddress address = new InetSocketAddress("127.0.0.1", 9094);
+
+    @Test
+    public void testSharedResourcePool() throws IOException, ExecutionException, InterruptedException {
+        ConnectionHandler<AsyncClient> connectionHandler = ConnectionBuilder.create(address, AsyncClient::new, (data, client) -> null, packet -> { }).shutdownWaitTime(100).build();
+        connectionHandler.start();
+        Connector<AsyncClient> connector = Connector.create(AsyncClient::new, null, null).threadPoolSize(2);
+        try {
+            Assert.assertNull(connector.getResourcePool());
+            AsyncClient first = connector.connect(address);
+            AsyncClient second = connector.connect(address);
+            Assert.assertNotNull(connector.getResourcePool());
+            Assert.assertSame(connector.getResourcePool(), first.getResourcePool());
+            Assert.assertSame(first.getResourcePool(), second.getResourcePool());
+            first.close();
+            second.close();
+        } finally {
+            connector.shutdown();
+            connectionHandler.shutdown();
+            connectionHandler.join();
+        }
+        Assert.assertNull(connector.getResourcePool());
+    }
+
+    @Test
+    public void testConnectOneAtATime() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        ConnectionHandler<AsyncClient> connectionHandler = ConnectionBuilder.create(address, AsyncClient::new, (data, client) -> null, packet -> { }).shutdownWaitTime(100).build();
+        connectionHandler.start();
+        Connector<AsyncClient> connector = Connector.create(AsyncClient::new, null, null).threadPoolSize(2);
+        try {
+            List<CompletableFuture<AsyncClient>> futures = connector.connectAll(List.of(address, InetSocketAddress.createUnresolved("unresolved.invalid", 9094), address), 1);
+            futures.get(0).get(10, TimeUnit.SECONDS).close();
+            try {
+                futures.get(1).get(10, TimeUnit.SECONDS);
+                Assert.fail("Exception is Expected");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof UnresolvedAddressException);
+            }
+            futures.get(2).get(10, TimeUnit.SECONDS).close();
+        } finally {
+            connector.shutdown();
+            connectionHandler.shutdown();
+            connectionHandler.join();
+        }
+    }
+
+    @Test
+    public void testExistingChannelGroup() throws IOException, ExecutionException, InterruptedException {
+        ConnectionHandler<AsyncClient> connectionHandler = ConnectionBuilder.create(address, AsyncClient::new, (data, client) -> null, packet -> { }).shutdownWaitTime(100).build();
+        connectionHandler.start();
+        AsynchronousChannelGroup group = AsynchronousChannelGroup.withFixedThreadPool(1, Executors.defaultThreadFactory());
+        Connector<AsyncClient> connector = Connector.create(AsyncClient::new, null, null).channelGroup(group);
+        try {
+            AsyncClient client = connector.connect(address);
+            Assert.assertTrue(client.isConnected());
+            client.close();
+            connector.shutdown();
+            Assert.assertFalse(group.isShutdown());
+        } finally {
+            group.shutdownNow();
+            connectionHandler.shutdown();
+            connectionHandler.join();
+        }
+    }
+
+    @Test
+    public void testConnectAll() throws IOException, InterruptedException {
+        ConnectionHandler<AsyncClient> connectionHandler = ConnectionBuilder.create(address, AsyncClient::new, (data, client) -> null, packet -> { }).shutdownWaitTime(100).build();
+        connectionHandler.start();
+        Connector<AsyncClient> connector = Connector.create(AsyncClient::new, null, null).threadPoolSize(2).connectTimeout(5000);
+        try {
+            List<InetSocketAddress> addresses = new ArrayList<>(Collections.nCopies(20, address));
+            addresses.add(new InetSocketAddress("127.0.0.1", 9095));
+            addresses.add(InetSocketAddress.createUnresolved("unresolved.invalid", 9094));
+            addresses.add(address);
+            List<CompletableFuture<AsyncClient>> futures = connector.connectAll(addresses, 3);
+            Assert.assertEquals(23, futures.size());
+            CompletableFuture.allOf(futures.subList(0, 20).toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+            for (CompletableFuture<AsyncClient> future : futures.subList(0, 20)) {
+                Assert.assertTrue(future.get().isConnected());
+                future.get().close();
+            }
+            try {
+                futures.get(20).get(10, TimeUnit.SECONDS);
+                Assert.fail("Exception is Expected");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof IOException);
+            }
+            try {
+                futures.get(21).get(10, TimeUnit.SECONDS);
+                Assert.fail("Exception is Expected");
+            } catch (ExecutionException e) {
+                Assert.assertTrue(e.getCause() instanceof UnresolvedAddressException);
+            }
+            AsyncClient last = futures.get(22).get(10, TimeUnit.SECONDS);
+            Assert.assertTrue(last.isConnected());
+            last.close();
+        } catch (ExecutionException | TimeoutException e) {
+            Assert.fail(e.getMessage());
+        } finally {
+            connector.shutdown();
+            connectionHandler.shutdown();
+            connectionHandler.join();
+        }
+    }
+
+    @Test
+    public void testConnectTimeout() throws IOException, InterruptedException {
+        Connector<AsyncClient> connector = Connector.create(AsyncClient::new, null, null);
+        AsynchronousSocketChannel channel = AsynchronousSocketChannel.open();
+        CompletableFuture<AsyncClient> future = new CompletableFuture<>();
+        Connector<AsyncClient>.ConnectAttempt attempt = connector.new ConnectAttempt(channel, future);
+
+        attempt.run();
+        attempt.completed(null, null);
+        Assert.assertFalse(channel.isOpen());
+        try {
+            future.get();
+            Assert.fail("Exception is Expected");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof InterruptedByTimeoutException);
+        }
+    }
+}
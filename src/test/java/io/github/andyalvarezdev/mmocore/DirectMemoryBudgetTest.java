@@ -0,0 +1,76 @@
+package io.github.andyalvarezdev.mmocore;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+public class DirectMemoryBudgetTest {
+
+    @Test
+    public void testDeferReadUntilRecycle() {
+        ResourcePool resourcePool = createResourcePool(2048);
+        ByteBuffer first = resourcePool.getBuffer(1000);
+        ByteBuffer second = resourcePool.getBuffer(1000);
+        Assert.assertEquals(2048, resourcePool.getDirectMemoryInUse());
+        Assert.assertTrue(resourcePool.isDirectMemoryExhausted());
+        Assert.assertNull(resourcePool.tryRecycleAndGetNew(null, 1000));
+
+        List<String> resumed = new CopyOnWriteArrayList<>();
+        resourcePool.deferRead(2000, () -> resumed.add("large"));
+        resourcePool.deferRead(1000, () -> resumed.add("small"));
+        Assert.assertEquals(2, resourcePool.getDeferredOperations());
+        Assert.assertTrue(resumed.isEmpty());
+
+        resourcePool.recycleBuffer(first);
+        Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> !resumed.isEmpty());
+        Assert.assertEquals(List.of("small"), resumed);
+        Assert.assertEquals(1, resourcePool.getDeferredOperations());
+        Assert.assertEquals(1024, resourcePool.getDirectMemoryInUse());
+    }
+
+    @Test
+    public void testPayloadLargerThanBudget() {
+        ResourcePool resourcePool = createResourcePool(2048);
+        Assert.assertTrue(resourcePool.fitsDirectMemoryBudget(1000));
+        Assert.assertFalse(resourcePool.fitsDirectMemoryBudget(2049));
+        Assert.assertFalse(resourcePool.fitsDirectMemoryBudget(50000));
+        Assert.assertTrue(createResourcePool(0).fitsDirectMemoryBudget(50000));
+    }
+
+    @Test
+    public void testDeferWriteUntilBelowBudget() {
+        ResourcePool resourcePool = createResourcePool(1024);
+        ByteBuffer buffer = resourcePool.getBuffer(1000);
+        List<Thread> resumed = new CopyOnWriteArrayList<>();
+        resourcePool.deferWrite(() -> resumed.add(Thread.currentThread()));
+        Assert.assertTrue(resumed.isEmpty());
+
+        resourcePool.recycleBuffer(buffer);
+        Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> !resumed.isEmpty());
+        Assert.assertEquals(1, resumed.size());
+        Assert.assertNotSame(Thread.currentThread(), resumed.get(0));
+        Assert.assertEquals(0, resourcePool.getDeferredOperations());
+    }
+
+    @Test
+    public void testNoBudget() {
+        ResourcePool resourcePool = createResourcePool(0);
+        ByteBuffer buffer = resourcePool.getBuffer(1000);
+        Assert.assertFalse(resourcePool.isDirectMemoryExhausted());
+        ByteBuffer other = resourcePool.tryRecycleAndGetNew(buffer, 20000);
+        Assert.assertNotNull(other);
+        Assert.assertEquals(other.capacity(), resourcePool.getDirectMemoryInUse());
+    }
+
+    private static ResourcePool createResourcePool(long budget) {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        config.newBufferGroup(4, 1024);
+        config.directMemoryBudget = budget;
+        return ResourcePool.initialize(config.complete());
+    }
+}
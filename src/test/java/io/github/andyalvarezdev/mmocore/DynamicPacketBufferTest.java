@@ -6,6 +6,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 public class DynamicPacketBufferTest {
 
@@ -48,6 +49,143 @@ public class DynamicPacketBufferTest {
         Assert.assertEquals(40, packetBuffer.readInt(0));
     }
 
+    @Test
+    public void testCharsAcrossNodes() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        config.newBufferGroup(4, 32);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        DynamicPacketBuffer packetBuffer = new DynamicPacketBuffer(ByteBuffer.allocate(32), resourcePool);
+
+        String text = "Async-mmocore handles the connections";
+        packetBuffer.writeByte((byte) 1);
+        packetBuffer.writeChars(text);
+        Assert.assertEquals(1 + text.length() * 2, packetBuffer.position());
+
+        for (int i = 0; i < text.length(); i++) {
+            Assert.assertEquals(text.charAt(i), (char) packetBuffer.readShort(1 + i * 2));
+        }
+    }
+
+    @Test
+    public void testBulkAcrossNodes() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        config.newBufferGroup(4, 32);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        DynamicPacketBuffer packetBuffer = new DynamicPacketBuffer(ByteBuffer.allocate(32), resourcePool);
+
+        int[] ints = new int[40];
+        long[] longs = new long[20];
+        short[] shorts = new short[15];
+        float[] floats = new float[10];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = i * 1000 - 7;
+        }
+        for (int i = 0; i < longs.length; i++) {
+            longs[i] = i * 100000000000L + 3;
+        }
+        for (int i = 0; i < shorts.length; i++) {
+            shorts[i] = (short) (i * 100 + 1);
+        }
+        for (int i = 0; i < floats.length; i++) {
+            floats[i] = i * 1.5f;
+        }
+
+        packetBuffer.writeByte((byte) 1);
+        packetBuffer.writeInts(ints, 0, ints.length);
+        packetBuffer.writeShorts(shorts, 0, shorts.length);
+        packetBuffer.writeLongs(longs, 0, longs.length);
+        packetBuffer.writeFloats(floats, 0, floats.length);
+
+        int index = 1;
+        for (int value : ints) {
+            Assert.assertEquals(value, packetBuffer.readInt(index));
+            index += 4;
+        }
+        for (short value : shorts) {
+            Assert.assertEquals(value, packetBuffer.readShort(index));
+            index += 2;
+        }
+        for (long value : longs) {
+            Assert.assertEquals(value, packetBuffer.readInt(index) & 0xFFFFFFFFL | (long) packetBuffer.readInt(index + 4) << 32);
+            index += 8;
+        }
+        for (float value : floats) {
+            Assert.assertEquals(value, Float.intBitsToFloat(packetBuffer.readInt(index)), 0);
+            index += 4;
+        }
+        Assert.assertEquals(index, packetBuffer.position());
+
+        packetBuffer.mark();
+        packetBuffer.position(1);
+        int[] readInts = new int[ints.length];
+        short[] readShorts = new short[shorts.length + 1];
+        long[] readLongs = new long[longs.length];
+        float[] readFloats = new float[floats.length];
+        packetBuffer.readInts(readInts, 0, readInts.length);
+        packetBuffer.readShorts(readShorts, 1, shorts.length);
+        packetBuffer.readLongs(readLongs, 0, readLongs.length);
+        packetBuffer.readFloats(readFloats, 0, readFloats.length);
+        Assert.assertArrayEquals(ints, readInts);
+        Assert.assertArrayEquals(shorts, Arrays.copyOfRange(readShorts, 1, readShorts.length));
+        Assert.assertArrayEquals(longs, readLongs);
+        Assert.assertArrayEquals(floats, readFloats, 0);
+        Assert.assertEquals(0, packetBuffer.remaining());
+    }
+
+    @Test
+    public void testVarIntAcrossNodes() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        config.newBufferGroup(4, 32);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        DynamicPacketBuffer packetBuffer = new DynamicPacketBuffer(ByteBuffer.allocate(32), resourcePool);
+
+        for (int i = 0; i < 20; i++) {
+            packetBuffer.writeVarInt(-i);
+            packetBuffer.writeVarLong(Long.MIN_VALUE + i);
+        }
+        packetBuffer.mark();
+
+        ByteBuffer data = ByteBuffer.allocate(packetBuffer.limit());
+        for (ByteBuffer buffer : packetBuffer.toByteBuffers()) {
+            data.put(buffer.position(0));
+        }
+        ReadableBuffer readable = ReadableBuffer.of(data.flip());
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(-i, readable.readVarInt());
+            Assert.assertEquals(Long.MIN_VALUE + i, readable.readVarLong());
+        }
+        Assert.assertEquals(0, readable.remaining());
+    }
+
+    @Test
+    public void testBitsAcrossNodes() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        config.newBufferGroup(4, 32);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        DynamicPacketBuffer packetBuffer = new DynamicPacketBuffer(ByteBuffer.allocate(32), resourcePool);
+
+        for (int i = 0; i < 100; i++) {
+            packetBuffer.writeBits(i, 7);
+            if(i % 10 == 0) {
+                packetBuffer.writeByte((byte) i);
+            }
+        }
+        packetBuffer.mark();
+
+        ByteBuffer data = ByteBuffer.allocate(packetBuffer.limit());
+        for (ByteBuffer buffer : packetBuffer.toByteBuffers()) {
+            data.put(buffer.position(0));
+        }
+        ReadableBuffer readable = ReadableBuffer.of(data.flip());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i, readable.readBits(7));
+            if(i % 10 == 0) {
+                Assert.assertEquals(i, readable.readByte());
+            }
+        }
+        Assert.assertEquals(0, readable.remaining());
+    }
+
     @Test(expected = IndexOutOfBoundsException.class)
     public void testNegativeIndex() {
         ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
@@ -100,4 +238,98 @@ public class DynamicPacketBufferTest {
         Assert.assertTrue(packetBuffer.capacity() >= 64);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testLongByIndex() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        config.newBufferGroup(4, 32);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        DynamicPacketBuffer packetBuffer = new DynamicPacketBuffer(ByteBuffer.allocate(32), resourcePool);
+        packetBuffer.writeBytes(new byte[48]);
+        packetBuffer.mark();
+
+        packetBuffer.writeLong(0, Long.MIN_VALUE);
+        packetBuffer.writeLong(28, 0x0102030405060708L);
+        Assert.assertEquals(Long.MIN_VALUE, packetBuffer.readLong(0));
+        Assert.assertEquals(0x0102030405060708L, packetBuffer.readLong(28));
+    }
+
+    @Test
+    public void testSegments() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        config.newBufferGroup(4, 32);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        DynamicPacketBuffer packetBuffer = new DynamicPacketBuffer(ByteBuffer.allocate(32), resourcePool);
+        for (int i = 0; i < 100; i++) {
+            packetBuffer.writeByte((byte) i);
+        }
+        packetBuffer.mark();
+
+        int[] next = { 5 };
+        packetBuffer.forEachSegment(5, 90, (segment, index) -> {
+            Assert.assertEquals(next[0], index);
+            while (segment.hasRemaining()) {
+                Assert.assertEquals((byte) index, segment.get(segment.position()));
+                segment.put((byte) (segment.get(segment.position()) ^ 0x7F));
+                index++;
+            }
+            next[0] = index;
+        });
+        Assert.assertEquals(95, next[0]);
+
+        for (int i = 0; i < 100; i++) {
+            byte expected = i >= 5 && i < 95 ? (byte) (i ^ 0x7F) : (byte) i;
+            Assert.assertEquals(expected, packetBuffer.readByte(i));
+        }
+        packetBuffer.writeLong(30, 42);
+        Assert.assertEquals(42, packetBuffer.readLong(30));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSegmentsOutOfLimit() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        DynamicPacketBuffer packetBuffer = new DynamicPacketBuffer(ByteBuffer.allocate(32), resourcePool);
+        packetBuffer.writeBytes(new byte[10]);
+        packetBuffer.mark();
+        packetBuffer.forEachSegment(5, 10, (segment, index) -> { });
+    }
+
+    @Test
+    public void testMarkAtCapacity() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        DynamicPacketBuffer packetBuffer = new DynamicPacketBuffer(ByteBuffer.allocate(32), resourcePool);
+        packetBuffer.writeBytes(new byte[32]);
+        packetBuffer.mark();
+        Assert.assertEquals(32, packetBuffer.limit());
+        Assert.assertEquals(32, Arrays.stream(packetBuffer.toByteBuffers()).mapToInt(ByteBuffer::remaining).sum());
+    }
+
+    @Test
+    public void testSequentialRead() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        config.newBufferGroup(4, 8);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        DynamicPacketBuffer packetBuffer = new DynamicPacketBuffer(ByteBuffer.allocate(8), resourcePool);
+        packetBuffer.writeByte((byte) 1);
+        packetBuffer.writeShort((short) 2);
+        packetBuffer.writeInt(3);
+        packetBuffer.writeLong(4);
+        packetBuffer.writeVarInt(300);
+        packetBuffer.writeDouble(5);
+        packetBuffer.writeBytes(ByteBuffer.wrap(new byte[] { 6, 7, 8 }));
+        packetBuffer.mark();
+        packetBuffer.position(0);
+
+        Assert.assertEquals(1, packetBuffer.readByte());
+        Assert.assertEquals(2, packetBuffer.readShort());
+        Assert.assertEquals(3, packetBuffer.readInt());
+        Assert.assertEquals(4, packetBuffer.readLong());
+        Assert.assertEquals(300, packetBuffer.readVarInt());
+        Assert.assertEquals(5, packetBuffer.readDouble(), 0);
+        byte[] bytes = new byte[3];
+        packetBuffer.readBytes(bytes);
+        Assert.assertArrayEquals(new byte[] { 6, 7, 8 }, bytes);
+        Assert.assertEquals(0, packetBuffer.remaining());
+    }
+}
@@ -0,0 +1,241 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.FrameHeader;
+import io.github.andyalvarezdev.mmocore.internal.WritableBuffer;
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class FrameHeaderTest {
+
+    private static byte[] payload(int size) {
+        byte[] payload = new byte[size];
+        for (int i = 0; i < size; i++) {
+            payload[i] = (byte) (i * 31);
+        }
+        return payload;
+    }
+
+    private static WritableBuffer data(FrameHeader frameHeader, byte[] payload, ResourcePool resourcePool) {
+        WritableBuffer data = WritableBuffer.dynamicOf(resourcePool.getSegmentBuffer(), resourcePool);
+        data.position(frameHeader.reservedSize());
+        data.writeBytes(payload);
+        data.mark();
+        return data;
+    }
+
+    private static byte[] toArray(WritableBuffer buffer, int start) {
+        byte[] bytes = new byte[buffer.limit() - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.readByte(start + i);
+        }
+        return bytes;
+    }
+
+    private static long readHeader(FrameHeader frameHeader, ByteBuffer frame) {
+        ByteBuffer header = ByteBuffer.allocate(frameHeader.reservedSize());
+        header.limit(frameHeader.minSize());
+        while (true) {
+            header.put(frame.get());
+            if(header.hasRemaining()) {
+                continue;
+            }
+            if(!frameHeader.needsMore(header)) {
+                break;
+            }
+            header.limit(header.position() + 1);
+        }
+        return frameHeader.read(header.flip());
+    }
+
+    @Test
+    public void testFixedSizeHeaders() {
+        ResourcePool resourcePool = ResourcePool.initialize(new ConnectionConfig<>(null, null, null));
+        byte[] payload = payload(300);
+        for (LengthField field : new LengthField[] { LengthField.SHORT, LengthField.MEDIUM, LengthField.INT }) {
+            FrameHeader frameHeader = new FrameHeader(field, ByteOrder.BIG_ENDIAN, false, false);
+            WritableBuffer data = data(frameHeader, payload, resourcePool);
+            int start = frameHeader.write(data, 0);
+            byte[] frame = toArray(data, start);
+
+            int frameSize = payload.length + field.maxSize();
+            Assert.assertEquals(frameSize, frame.length);
+            Assert.assertEquals(frameSize & 0xFF, frame[field.maxSize() - 1] & 0xFF);
+            Assert.assertEquals(frameSize >> 8, frame[field.maxSize() - 2] & 0xFF);
+
+            long header = readHeader(frameHeader, ByteBuffer.wrap(frame));
+            Assert.assertEquals(frameSize, frameHeader.frameSize(header));
+            data.releaseResources();
+        }
+    }
+
+    @Test
+    public void testVarIntHeader() {
+        ResourcePool resourcePool = ResourcePool.initialize(new ConnectionConfig<>(null, null, null));
+        FrameHeader frameHeader = new FrameHeader(LengthField.VAR_INT, ByteOrder.LITTLE_ENDIAN, true, false);
+        for (int size : new int[] { 10, 62, 63, 8000, 70000 }) {
+            byte[] payload = payload(size);
+            WritableBuffer data = data(frameHeader, payload, resourcePool);
+            int start = frameHeader.write(data, frameHeader.compressedFlag());
+            byte[] frame = toArray(data, start);
+
+            ByteBuffer incoming = ByteBuffer.wrap(frame);
+            long header = readHeader(frameHeader, incoming);
+            Assert.assertEquals(frame.length, frameHeader.frameSize(header));
+            Assert.assertTrue(frameHeader.isCompressed(header));
+            Assert.assertEquals(size, incoming.remaining());
+            data.releaseResources();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedVarIntHeader() {
+        FrameHeader frameHeader = new FrameHeader(LengthField.VAR_INT, ByteOrder.LITTLE_ENDIAN, false, false);
+        readHeader(frameHeader, ByteBuffer.wrap(new byte[] { -1, -1, -1, -1, -1, 1 }));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFrameTooLarge() {
+        ResourcePool resourcePool = ResourcePool.initialize(new ConnectionConfig<>(null, null, null));
+        FrameHeader frameHeader = new FrameHeader(LengthField.SHORT, ByteOrder.LITTLE_ENDIAN, true, false);
+        Assert.assertFalse(frameHeader.fits(32766, 0));
+        frameHeader.write(data(frameHeader, payload(32766), resourcePool), 0);
+    }
+
+    @Test
+    public void testFrameSizeLimit() {
+        ConnectionConfig<AsyncClient> config = new ConnectionConfig<>(null, null, null);
+        config.lengthField = LengthField.INT;
+        config.newBufferGroup(10, 1024);
+        config.newBufferGroup(10, 4096);
+        config.newBufferGroup(10, 8192);
+        FrameHeader frameHeader = ResourcePool.initialize(config.complete()).getFrameHeader();
+        Assert.assertEquals(8192, frameHeader.frameSizeLimit());
+        Assert.assertFalse(frameHeader.fits(8192, 0));
+
+        config.maxFrameSize = 1 << 20;
+        Assert.assertEquals(1 << 20, ResourcePool.initialize(config).getFrameHeader().frameSizeLimit());
+
+        ConnectionConfig<AsyncClient> withoutPools = new ConnectionConfig<>(null, null, null);
+        withoutPools.lengthField = LengthField.VAR_INT;
+        Assert.assertEquals(65536, ResourcePool.initialize(withoutPools).getFrameHeader().frameSizeLimit());
+    }
+
+    @Test
+    public void testFragmentBySizeLimit() {
+        ResourcePool resourcePool = ResourcePool.initialize(new ConnectionConfig<>(null, null, null));
+        FrameHeader frameHeader = new FrameHeader(LengthField.INT, ByteOrder.LITTLE_ENDIAN, false, true, 1000);
+        byte[] payload = payload(2500);
+        WritableBuffer data = data(frameHeader, payload, resourcePool);
+        Assert.assertFalse(frameHeader.fits(payload.length, 0));
+
+        WritableBuffer frames = frameHeader.fragment(data, 0, resourcePool);
+        ByteBuffer incoming = ByteBuffer.wrap(toArray(frames, 0));
+        int fragments = 0;
+        long header;
+        do {
+            header = readHeader(frameHeader, incoming);
+            Assert.assertTrue(frameHeader.frameSize(header) <= 1000);
+            incoming.position(incoming.position() + (int) frameHeader.frameSize(header) - frameHeader.reservedSize());
+            fragments++;
+        } while (frameHeader.isFragment(header));
+
+        Assert.assertEquals(3, fragments);
+        Assert.assertFalse(incoming.hasRemaining());
+        data.releaseResources();
+        frames.releaseResources();
+    }
+
+    @Test
+    public void testFragment() {
+        ResourcePool resourcePool = ResourcePool.initialize(new ConnectionConfig<>(null, null, null));
+        FrameHeader frameHeader = new FrameHeader(LengthField.SHORT, ByteOrder.LITTLE_ENDIAN, false, true);
+        byte[] payload = payload(100000);
+        WritableBuffer data = data(frameHeader, payload, resourcePool);
+        Assert.assertFalse(frameHeader.fits(payload.length, 0));
+
+        WritableBuffer frames = frameHeader.fragment(data, 0, resourcePool);
+        ByteBuffer incoming = ByteBuffer.wrap(toArray(frames, 0));
+        ByteBuffer reassembled = ByteBuffer.allocate(payload.length);
+        int fragments = 0;
+        long header;
+        do {
+            header = readHeader(frameHeader, incoming);
+            int payloadSize = (int) frameHeader.frameSize(header) - frameHeader.reservedSize();
+            Assert.assertTrue(payloadSize <= frameHeader.maxFrameSize());
+            reassembled.put(incoming.slice().limit(payloadSize));
+            incoming.position(incoming.position() + payloadSize);
+            fragments++;
+        } while (frameHeader.isFragment(header));
+
+        Assert.assertEquals(4, fragments);
+        Assert.assertFalse(incoming.hasRemaining());
+        Assert.assertArrayEquals(payload, reassembled.array());
+        data.releaseResources();
+        frames.releaseResources();
+    }
+
+    @Test
+    public void testFragmentedPacket() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+        byte[] payload = payload(150000);
+        AtomicReference<byte[]> received = new AtomicReference<>();
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> {
+            byte[] data = new byte[buffer.remaining()];
+            buffer.readBytes(data);
+            received.set(data);
+            return null;
+        }, packet -> { }).shutdownWaitTime(100).fragmentation(true).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).fragmentation(true).connect(socketAddress);
+            client.sendPacket(new WritablePacket<>() {
+                @Override
+                protected boolean write(AsyncClient client) {
+                    writeBytes(payload);
+                    return true;
+                }
+            });
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.get() != null);
+            Assert.assertArrayEquals(payload, received.get());
+        } finally {
+            handler.shutdown();
+            handler.join();
+        }
+    }
+
+    @Test
+    public void testReassembledPacketTooLarge() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+        byte[] payload = payload(150000);
+        AtomicReference<byte[]> received = new AtomicReference<>();
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> {
+            received.set(new byte[buffer.remaining()]);
+            return null;
+        }, packet -> { }).shutdownWaitTime(100).fragmentation(true).maxReassembledSize(100000).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).fragmentation(true).connect(socketAddress);
+            client.sendPacket(new WritablePacket<>() {
+                @Override
+                protected boolean write(AsyncClient client) {
+                    writeBytes(payload);
+                    return true;
+                }
+            });
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> handler.getResourcePool().getMalformedFrames() == 1);
+            Assert.assertNull(received.get());
+        } finally {
+            handler.shutdown();
+            handler.join();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package io.github.andyalvarezdev.mmocore;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class PacketCodecTest {
+
+    @Test
+    public void testPipeline() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+        byte[] payload = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+        AtomicReference<byte[]> received = new AtomicReference<>();
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> {
+            byte[] data = new byte[buffer.remaining()];
+            buffer.readBytes(data);
+            received.set(data);
+            return null;
+        }, packet -> { }).shutdownWaitTime(100).addCodec(ChecksumCodec::new).addCodec(IncrementCodec::new).addCodec(XorCodec::new).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).addCodec(ChecksumCodec::new).addCodec(IncrementCodec::new)
+                    .addCodec(XorCodec::new).connect(socketAddress);
+            client.sendPacket(new BytesPacket(payload));
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.get() != null);
+            Assert.assertArrayEquals(payload, received.get());
+        } finally {
+            handler.shutdown();
+            handler.join();
+        }
+    }
+
+    @Test
+    public void testDiscardRejected() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+        AtomicInteger received = new AtomicInteger();
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> {
+            received.set(buffer.readByte());
+            return null;
+        }, packet -> { }).shutdownWaitTime(100).addCodec(ChecksumCodec::new).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).addCodec(ChecksumCodec::new).addCodec(CorruptCodec::new).connect(socketAddress);
+            client.sendPacket(new BytesPacket(new byte[] { 1 }));
+            client.sendPacket(new BytesPacket(new byte[] { 2 }));
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.get() != 0);
+            Assert.assertEquals(2, received.get());
+        } finally {
+            handler.shutdown();
+            handler.join();
+        }
+    }
+
+    static class BytesPacket extends WritablePacket<AsyncClient> {
+        private final byte[] bytes;
+
+        BytesPacket(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        protected boolean write(AsyncClient client) {
+            writeBytes(bytes);
+            return true;
+        }
+    }
+
+    static class XorCodec implements PacketCodec {
+        @Override
+        public boolean encode(Buffer data, int offset, int size) {
+            for (int i = offset; i < offset + size; i++) {
+                data.writeByte(i, (byte) (data.readByte(i) ^ 0x55));
+            }
+            return true;
+        }
+
+        @Override
+        public boolean decode(Buffer data, int offset, int size) {
+            return encode(data, offset, size);
+        }
+    }
+
+    static class IncrementCodec implements PacketCodec {
+        @Override
+        public boolean encode(Buffer data, int offset, int size) {
+            for (int i = offset; i < offset + size; i++) {
+                data.writeByte(i, (byte) (data.readByte(i) + 1));
+            }
+            return true;
+        }
+
+        @Override
+        public boolean decode(Buffer data, int offset, int size) {
+            for (int i = offset; i < offset + size; i++) {
+                data.writeByte(i, (byte) (data.readByte(i) - 1));
+            }
+            return true;
+        }
+    }
+
+    static class ChecksumCodec implements PacketCodec {
+        @Override
+        public boolean encode(Buffer data, int offset, int size) {
+            data.limit(offset + size + 1);
+            data.writeByte(offset + size, checksum(data, offset, size));
+            return true;
+        }
+
+        @Override
+        public boolean decode(Buffer data, int offset, int size) {
+            if(size < 1 || data.readByte(offset + size - 1) != checksum(data, offset, size - 1)) {
+                return false;
+            }
+            data.limit(offset + size - 1);
+            return true;
+        }
+
+        private static byte checksum(Buffer data, int offset, int size) {
+            byte checksum = 0;
+            for (int i = offset; i < offset + size; i++) {
+                checksum += data.readByte(i);
+            }
+            return checksum;
+        }
+    }
+
+    static class CorruptCodec implements PacketCodec {
+        private boolean corrupted;
+
+        @Override
+        public boolean encode(Buffer data, int offset, int size) {
+            if(!corrupted) {
+                corrupted = true;
+                data.writeByte(offset, (byte) (data.readByte(offset) + 1));
+            }
+            return true;
+        }
+
+        @Override
+        public boolean decode(Buffer data, int offset, int size) {
+            return true;
+        }
+    }
+}
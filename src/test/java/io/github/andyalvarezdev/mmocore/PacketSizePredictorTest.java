@@ -0,0 +1,114 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.WritableBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutionException;
+
+public class PacketSizePredictorTest {
+
+    @Test
+    public void testBuckets() {
+        for (int size = 0; size < 100000; size++) {
+            int bucket = PacketSizePredictor.bucket(size);
+            Assert.assertTrue(PacketSizePredictor.upperBound(bucket) > size);
+            Assert.assertTrue(bucket == 0 || PacketSizePredictor.upperBound(bucket - 1) <= size);
+        }
+        Assert.assertEquals(Integer.MAX_VALUE, PacketSizePredictor.upperBound(PacketSizePredictor.bucket(Integer.MAX_VALUE)));
+    }
+
+    @Test
+    public void testOutlierIgnored() {
+        PacketSizePredictor predictor = new PacketSizePredictor();
+        for (int i = 0; i < 200; i++) {
+            predictor.record(i == 100 ? 60000 : 300, 512, true);
+        }
+        Assert.assertEquals(320, predictor.predictedSize());
+        Assert.assertEquals(200, predictor.samples());
+        Assert.assertEquals(1, predictor.undersized());
+        Assert.assertEquals(0, predictor.oversized());
+    }
+
+    @Test
+    public void testDecay() {
+        PacketSizePredictor predictor = new PacketSizePredictor();
+        for (int i = 0; i < PacketSizePredictor.DECAY_INTERVAL * 2; i++) {
+            predictor.record(2000, 256, false);
+        }
+        Assert.assertEquals(2048, predictor.predictedSize());
+
+        for (int i = 0; i < PacketSizePredictor.DECAY_INTERVAL * 4; i++) {
+            predictor.record(100, 4096, true);
+        }
+        Assert.assertEquals(112, predictor.predictedSize());
+        Assert.assertEquals(PacketSizePredictor.DECAY_INTERVAL * 2, predictor.undersized());
+        Assert.assertEquals(PacketSizePredictor.DECAY_INTERVAL * 4, predictor.oversized());
+    }
+
+    @Test
+    public void testPredictedBuffer() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        config.newBufferGroup(4, 1024);
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+        PacketSizePredictor predictor = WritablePacket.sizePredictorOf(LargePacket.class);
+        for (int i = 0; i < 64; i++) {
+            predictor.record(700, 256, false);
+        }
+        Assert.assertEquals(768, predictor.predictedSize());
+        Assert.assertEquals(1024, resourcePool.getBuffer(predictor.predictedSize()).capacity());
+        Assert.assertSame(predictor, WritablePacket.sizePredictorOf(LargePacket.class));
+        Assert.assertNotSame(predictor, WritablePacket.sizePredictorOf(WritablePacketPoolTest.PooledPacket.class));
+    }
+
+    @Test
+    public void testPredictionAboveLargestPool() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, null, null).shutdownWaitTime(100).build();
+        Connector<AsyncClient> connector = Connector.create(AsyncClient::new, null, null).addBufferPool(8, 1024).addBufferPool(8, 2048).addBufferPool(8, 4096);
+        try {
+            handler.start();
+            AsyncClient client = connector.connect(socketAddress);
+            PacketSizePredictor predictor = WritablePacket.sizePredictorOf(HugePacket.class);
+            for (int i = 0; i < 64; i++) {
+                predictor.record(HugePacket.SIZE, 256, false);
+            }
+            Assert.assertTrue(predictor.predictedSize() > 4096);
+
+            ResourcePool resourcePool = client.getResourcePool();
+            long directMemory = resourcePool.getDirectMemoryInUse();
+            WritableBuffer buffer = new HugePacket().writeData(client);
+            Assert.assertNotNull(buffer);
+            BufferPoolMetrics largest = resourcePool.getBufferPoolMetrics().get(resourcePool.getBufferPoolMetrics().size() - 1);
+            Assert.assertEquals(4096, largest.bufferSize());
+            Assert.assertEquals(4, largest.inUse());
+            Assert.assertEquals(4 * 4096, resourcePool.getDirectMemoryInUse() - directMemory);
+            buffer.releaseResources();
+            Assert.assertEquals(directMemory, resourcePool.getDirectMemoryInUse());
+            client.close();
+        } finally {
+            connector.shutdown();
+            handler.shutdown();
+            handler.join();
+        }
+    }
+
+    static class HugePacket extends WritablePacket<AsyncClient> {
+        static final int SIZE = 10000;
+
+        @Override
+        protected boolean write(AsyncClient client) {
+            writeBytes(new byte[SIZE]);
+            return true;
+        }
+    }
+
+    static class LargePacket extends WritablePacket<AsyncClient> {
+        @Override
+        protected boolean write(AsyncClient client) {
+            return true;
+        }
+    }
+}
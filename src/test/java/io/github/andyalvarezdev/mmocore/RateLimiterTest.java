@@ -0,0 +1,112 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.TokenBucket;
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testTokenBucketDebt() {
+        TokenBucket bucket = new TokenBucket(10, 0);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(0, bucket.take(1, 0));
+        }
+        Assert.assertEquals(SECOND / 10, bucket.take(1, 0));
+        Assert.assertEquals(0, bucket.take(1, SECOND));
+    }
+
+    @Test
+    public void testTokenBucketRefillUpToOneSecond() {
+        TokenBucket bucket = new TokenBucket(10, 0);
+        bucket.take(10, 0);
+        Assert.assertEquals(0, bucket.take(10, 60 * SECOND));
+        Assert.assertEquals(SECOND / 2, bucket.take(5, 60 * SECOND));
+    }
+
+    @Test
+    public void testRateLimiterViolations() {
+        RateLimiter limiter = new RateLimiter(2, 0, new int[0]);
+        limiter.onPacket(-1);
+        Assert.assertEquals(0, limiter.takeDelay());
+        limiter.onPacket(-1);
+        limiter.onPacket(-1);
+        Assert.assertTrue(limiter.takeDelay() > 0);
+        Assert.assertEquals(1, limiter.violations());
+        limiter.onPacket(-1);
+        Assert.assertTrue(limiter.takeDelay() > 0);
+        Assert.assertEquals(2, limiter.violations());
+    }
+
+    @Test
+    public void testRateClassAndBytes() {
+        RateLimiter limiter = new RateLimiter(0, 100, new int[] { 0, 1 });
+        limiter.onPacket(0);
+        limiter.onPacket(5);
+        limiter.onFrame(100);
+        Assert.assertEquals(0, limiter.takeDelay());
+
+        limiter.onPacket(1);
+        limiter.onPacket(1);
+        Assert.assertTrue(limiter.takeDelay() > SECOND / 2);
+
+        limiter.onFrame(50);
+        Assert.assertTrue(limiter.takeDelay() > SECOND / 4);
+        Assert.assertEquals(2, limiter.violations());
+    }
+
+    @Test
+    public void testNoRateLimits() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        Assert.assertNull(ResourcePool.initialize(config.complete()).createRateLimiter());
+        config.rateClassLimit(2, 5);
+        Assert.assertNotNull(ResourcePool.initialize(config).createRateLimiter());
+    }
+
+    @Test
+    public void testReadsDeferredByRateLimit() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", 9090);
+        AtomicInteger received = new AtomicInteger();
+        Queue<Integer> violations = new ConcurrentLinkedQueue<>();
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(address, AsyncClient::new, (buffer, client) -> new ReceivablePacket(),
+                packet -> received.incrementAndGet()).packetRateLimit(100, 0).rateLimitAction(5, (client, count) -> violations.add(count))
+                .shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).connect(address);
+            long start = System.nanoTime();
+            for (int i = 0; i < 150; i++) {
+                client.sendPacket(new BytePacket());
+            }
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.get() == 150);
+            Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300));
+            Assert.assertTrue(Thread.getAllStackTraces().keySet().stream().anyMatch(thread -> "MMO-scheduler".equals(thread.getName())));
+            Assert.assertTrue(violations.size() >= 5);
+            Assert.assertTrue(violations.stream().allMatch(count -> count % 5 == 0));
+            Assert.assertTrue(client.isConnected());
+        } finally {
+            handler.shutdown();
+            handler.join();
+        }
+    }
+
+    static class BytePacket extends WritablePacket<AsyncClient> {
+
+        @Override
+        protected boolean write(AsyncClient client) {
+            writeByte((byte) 1);
+            return true;
+        }
+    }
+}
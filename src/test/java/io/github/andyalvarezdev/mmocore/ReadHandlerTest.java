@@ -7,7 +7,10 @@ import org.junit.Test;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 public class ReadHandlerTest {
 
@@ -61,10 +64,8 @@ public class ReadHandlerTest {
         try {
             ReadHandler<AsyncClient> handler = new ReadHandler<>(null, null);
             handler.completed(2, client);
-            Assert.fail("Exception is Expected");
-        } catch (Exception e) {
-            boolean connected = client.isConnected();
-            Assert.assertTrue(connected);
+            Assert.assertFalse(client.isConnected());
+            Assert.assertEquals(1, client.getResourcePool().getMalformedFrames());
         } finally {
             connectionHandler.shutdown();
             connectionHandler.join();
@@ -112,4 +113,88 @@ public class ReadHandlerTest {
             connectionHandler.join();
         }
     }
+
+    @Test
+    public void testMalformedFrameAborts() throws InterruptedException, ExecutionException, IOException {
+        ConnectionHandler<AsyncClient> connectionHandler = connectionBuilder.shutdownWaitTime(100).build();
+        connectionHandler.start();
+        AsyncClient client = connector.connect(address);
+        try {
+            ReadHandler<AsyncClient> handler = new ReadHandler<>(null, null);
+            ByteBuffer buffer = client.getConnection().getReadingBuffer();
+            buffer.putShort((short) 1);
+            long start = System.nanoTime();
+            handler.completed(2, client);
+            Assert.assertFalse(client.isConnected());
+            Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+            Assert.assertEquals(1, client.getResourcePool().getMalformedFrames());
+        } finally {
+            connectionHandler.shutdown();
+            connectionHandler.join();
+        }
+    }
+
+    @Test
+    public void testFrameSizeLimits() throws InterruptedException, ExecutionException, IOException {
+        ConnectionHandler<AsyncClient> connectionHandler = connectionBuilder.shutdownWaitTime(100).build();
+        connectionHandler.start();
+        AsyncClient client = Connector.create(AsyncClient::new, null, null).frameSizeLimits(4, 100).connect(address);
+        try {
+            Assert.assertEquals(4, client.getMinFrameSize());
+            Assert.assertEquals(100, client.getMaxFrameSize());
+            client.setFrameSizeLimits(0, 50);
+            Assert.assertEquals(2, client.getMinFrameSize());
+            Assert.assertEquals(50, client.getMaxFrameSize());
+
+            ReadHandler<AsyncClient> handler = new ReadHandler<>(null, null);
+            ByteBuffer buffer = client.getConnection().getReadingBuffer();
+            buffer.putShort((short) 60);
+            handler.completed(2, client);
+            Assert.assertFalse(client.isConnected());
+            Assert.assertEquals(1, client.getResourcePool().getMalformedFrames());
+        } finally {
+            connectionHandler.shutdown();
+            connectionHandler.join();
+        }
+    }
+
+    @Test
+    public void testPayloadLargerThanDirectMemoryBudget() throws InterruptedException, ExecutionException, IOException {
+        ConnectionHandler<AsyncClient> connectionHandler = connectionBuilder.shutdownWaitTime(100).build();
+        connectionHandler.start();
+        AsyncClient client = Connector.create(AsyncClient::new, null, null).directMemoryBudget(4096).connect(address);
+        try {
+            ReadHandler<AsyncClient> handler = new ReadHandler<>(null, null);
+            ByteBuffer buffer = client.getConnection().getReadingBuffer();
+            buffer.putShort((short) 10000);
+            handler.completed(2, client);
+            Assert.assertFalse(client.isConnected());
+            Assert.assertEquals(1, client.getResourcePool().getMalformedFrames());
+            Assert.assertEquals(0, client.getResourcePool().getDeferredOperations());
+        } finally {
+            connectionHandler.shutdown();
+            connectionHandler.join();
+        }
+    }
+
+    @Test
+    public void testDefaultMaxFrameSize() throws InterruptedException, ExecutionException, IOException {
+        ConnectionHandler<AsyncClient> connectionHandler = connectionBuilder.frameHeader(LengthField.INT, ByteOrder.LITTLE_ENDIAN).shutdownWaitTime(100).build();
+        connectionHandler.start();
+        AsyncClient client = Connector.create(AsyncClient::new, null, null).frameHeader(LengthField.INT, ByteOrder.LITTLE_ENDIAN).connect(address);
+        try {
+            List<BufferPoolMetrics> pools = client.getResourcePool().getBufferPoolMetrics();
+            Assert.assertEquals(pools.get(pools.size() - 1).bufferSize(), client.getMaxFrameSize());
+            ReadHandler<AsyncClient> handler = new ReadHandler<>(null, null);
+            ByteBuffer buffer = client.getConnection().getReadingBuffer();
+            buffer.putInt(1 << 29);
+            handler.completed(4, client);
+            Assert.assertFalse(client.isConnected());
+            Assert.assertEquals(1, client.getResourcePool().getMalformedFrames());
+            Assert.assertEquals(0, client.getResourcePool().getDirectMemoryInUse());
+        } finally {
+            connectionHandler.shutdown();
+            connectionHandler.join();
+        }
+    }
 }
@@ -0,0 +1,143 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.SegmentBuffers;
+import io.github.andyalvarezdev.mmocore.internal.WritableBuffer;
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class SegmentBuffersTest {
+
+    @Test
+    public void testWriteAndRead() {
+        SegmentBuffers segmentBuffers = SegmentBuffers.create();
+        Assume.assumeNotNull(segmentBuffers);
+        try {
+            WritableBuffer buffer = segmentBuffers.newBuffer(8);
+            buffer.writeByte((byte) 1);
+            buffer.writeShort((short) 2);
+            buffer.writeInt(3);
+            buffer.writeLong(4);
+            buffer.writeVarInt(300);
+            buffer.writeChars("test");
+            buffer.writeInts(new int[] { 5, 6, 7 }, 0, 3);
+            buffer.writeBytes(ByteBuffer.wrap(new byte[] { 8, 9 }));
+            buffer.mark();
+            Assert.assertEquals(39, buffer.limit());
+
+            ReadableBuffer readable = (ReadableBuffer) buffer;
+            buffer.position(0);
+            Assert.assertEquals(1, readable.readByte());
+            Assert.assertEquals(2, readable.readShort());
+            Assert.assertEquals(3, readable.readInt());
+            Assert.assertEquals(4, readable.readLong());
+            Assert.assertEquals(300, readable.readVarInt());
+            char[] chars = new char[4];
+            readable.readChars(chars, 0, 4);
+            Assert.assertEquals("test", new String(chars));
+            int[] ints = new int[3];
+            readable.readInts(ints, 0, 3);
+            Assert.assertArrayEquals(new int[] { 5, 6, 7 }, ints);
+            Assert.assertEquals(8, readable.readByte());
+            Assert.assertEquals(9, readable.readByte());
+
+            ByteBuffer[] buffers = buffer.toByteBuffers();
+            Assert.assertEquals(1, buffers.length);
+            Assert.assertEquals(39, buffers[0].remaining());
+            Assert.assertEquals(3, buffers[0].getInt(3));
+
+            buffer.releaseResources();
+            buffer.writeInt(10);
+            Assert.assertEquals(10, readable.readInt(0));
+        } finally {
+            segmentBuffers.close();
+        }
+    }
+
+    @Test
+    public void testBulkCopiesAndReuse() {
+        SegmentBuffers segmentBuffers = SegmentBuffers.create();
+        Assume.assumeNotNull(segmentBuffers);
+        try {
+            WritableBuffer buffer = segmentBuffers.newBuffer(4);
+            ReadableBuffer readable = (ReadableBuffer) buffer;
+            for (int i = 0; i < 3; i++) {
+                buffer.writeShorts(new short[] { 1, -2, 3 }, 1, 2);
+                buffer.writeLongs(new long[] { Long.MIN_VALUE, 5, Long.MAX_VALUE }, 0, 3);
+                buffer.writeFloats(new float[] { 1.5f, -2.25f }, 0, 2);
+                buffer.writeBytes(ByteBuffer.allocateDirect(3).put(new byte[] { 7, 8, 9 }).flip());
+                buffer.mark();
+                Assert.assertEquals(2 * 2 + 3 * 8 + 2 * 4 + 3, buffer.limit());
+
+                buffer.position(0);
+                short[] shorts = new short[3];
+                readable.readShorts(shorts, 1, 2);
+                Assert.assertArrayEquals(new short[] { 0, -2, 3 }, shorts);
+                long[] longs = new long[3];
+                readable.readLongs(longs, 0, 3);
+                Assert.assertArrayEquals(new long[] { Long.MIN_VALUE, 5, Long.MAX_VALUE }, longs);
+                float[] floats = new float[2];
+                readable.readFloats(floats, 0, 2);
+                Assert.assertArrayEquals(new float[] { 1.5f, -2.25f }, floats, 0);
+                byte[] bytes = new byte[3];
+                readable.readBytes(bytes);
+                Assert.assertArrayEquals(new byte[] { 7, 8, 9 }, bytes);
+                Assert.assertEquals(0, readable.remaining());
+
+                buffer.forEachSegment(4, 8, (segment, index) -> Assert.assertEquals(Long.MIN_VALUE, segment.getLong(index)));
+                buffer.releaseResources();
+                Assert.assertEquals(0, buffer.limit());
+                buffer.releaseResources();
+            }
+        } finally {
+            segmentBuffers.close();
+        }
+    }
+
+    @Test
+    public void testSendWithMemorySegments() throws IOException, ExecutionException, InterruptedException {
+        Assume.assumeNotNull(SegmentBuffers.create());
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+        Queue<Long> received = new ConcurrentLinkedQueue<>();
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> {
+            received.add(buffer.readLong());
+            return null;
+        }, packet -> { }).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).useMemorySegments(true).connect(socketAddress);
+            for (long i = 0; i < 100; i++) {
+                client.sendPacket(new LongPacket(i));
+            }
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 100);
+            Assert.assertEquals(4950, received.stream().mapToLong(Long::longValue).sum());
+        } finally {
+            handler.shutdown();
+            handler.join();
+        }
+    }
+
+    static class LongPacket extends WritablePacket<AsyncClient> {
+
+        private final long value;
+
+        LongPacket(long value) {
+            this.value = value;
+        }
+
+        @Override
+        protected boolean write(AsyncClient client) {
+            writeLong(value);
+            return true;
+        }
+    }
+}
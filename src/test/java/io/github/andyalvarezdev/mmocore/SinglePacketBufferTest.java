@@ -5,6 +5,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 public class SinglePacketBufferTest {
 
@@ -46,6 +47,63 @@ public class SinglePacketBufferTest {
         Assert.assertEquals(9, packetBuffer.readInt(9));
     }
 
+    @Test
+    public void testChars() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(20).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putShort((short) 3);
+        for (char c : "Async".toCharArray()) {
+            buffer.putChar(c);
+        }
+        SinglePacketBuffer packetBuffer = new SinglePacketBuffer(buffer.flip());
+
+        Assert.assertEquals(3, packetBuffer.readShort());
+        char[] chars = new char[5];
+        packetBuffer.readChars(chars, 0, 5);
+        Assert.assertEquals("Async", new String(chars));
+        Assert.assertEquals(0, packetBuffer.remaining());
+    }
+
+    @Test
+    public void testBulk() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(100).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put((byte) 1);
+        buffer.putShort((short) 2).putShort((short) -3);
+        buffer.putInt(4).putInt(-5);
+        buffer.putLong(6).putLong(Long.MAX_VALUE);
+        buffer.putFloat(7.5f).putFloat(-8.25f);
+        SinglePacketBuffer packetBuffer = new SinglePacketBuffer(buffer.flip());
+
+        packetBuffer.readByte();
+        short[] shorts = new short[2];
+        packetBuffer.readShorts(shorts, 0, 2);
+        int[] ints = new int[3];
+        packetBuffer.readInts(ints, 1, 2);
+        long[] longs = new long[2];
+        packetBuffer.readLongs(longs, 0, 2);
+        float[] floats = new float[2];
+        packetBuffer.readFloats(floats, 0, 2);
+
+        Assert.assertArrayEquals(new short[] { 2, -3 }, shorts);
+        Assert.assertArrayEquals(new int[] { 0, 4, -5 }, ints);
+        Assert.assertArrayEquals(new long[] { 6, Long.MAX_VALUE }, longs);
+        Assert.assertArrayEquals(new float[] { 7.5f, -8.25f }, floats, 0);
+        Assert.assertEquals(0, packetBuffer.remaining());
+    }
+
+    @Test
+    public void testVarInt() {
+        ByteBuffer buffer = ByteBuffer.allocate(20);
+        buffer.put((byte) 0x96).put((byte) 0x01);
+        buffer.put((byte) 0xFF).put((byte) 0xFF).put((byte) 0xFF).put((byte) 0xFF).put((byte) 0x0F);
+        buffer.put((byte) 0x80).put((byte) 0x80).put((byte) 0x80).put((byte) 0x80).put((byte) 0x80).put((byte) 0x01);
+        SinglePacketBuffer packetBuffer = new SinglePacketBuffer(buffer.flip());
+
+        Assert.assertEquals(150, packetBuffer.readVarInt());
+        Assert.assertEquals(-1, packetBuffer.readVarInt());
+        Assert.assertEquals(1L << 35, packetBuffer.readVarLong());
+        Assert.assertEquals(0, packetBuffer.remaining());
+    }
+
     @Test
     public void testLimits() {
         ByteBuffer buffer = ByteBuffer.allocate(100);
@@ -64,4 +122,18 @@ public class SinglePacketBufferTest {
         packetBuffer.limit(150);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testSegments() {
+        ByteBuffer buffer = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        SinglePacketBuffer packetBuffer = new SinglePacketBuffer(buffer);
+        packetBuffer.writeLong(0, 3);
+        packetBuffer.writeLong(8, 4);
+        Assert.assertEquals(3, packetBuffer.readLong(0));
+
+        buffer.position(2);
+        packetBuffer.forEachSegment(8, 8, (segment, index) -> segment.putLong(segment.getLong(segment.position()) * 10));
+        Assert.assertEquals(40, packetBuffer.readLong(8));
+        Assert.assertEquals(2, buffer.position());
+        Assert.assertEquals(16, buffer.limit());
+    }
+}
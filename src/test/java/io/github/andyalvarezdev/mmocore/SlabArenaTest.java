@@ -0,0 +1,127 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.BufferPool;
+import io.github.andyalvarezdev.mmocore.internal.MemoryBudget;
+import io.github.andyalvarezdev.mmocore.internal.SlabArena;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+public class SlabArenaTest {
+
+    @Test
+    public void testAllocate() {
+        SlabArena arena = new SlabArena(64, 1024, 100, new MemoryBudget(0));
+        Assert.assertEquals(112, arena.capacity());
+        Set<ByteBuffer> buffers = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < 112; i++) {
+            ByteBuffer buffer = arena.allocate();
+            Assert.assertEquals(64, buffer.capacity());
+            Assert.assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+            Assert.assertTrue(buffer.isDirect());
+            buffer.putLong(0, i);
+            buffers.add(buffer);
+        }
+        Assert.assertEquals(112, buffers.size());
+        Assert.assertEquals(0, arena.available());
+
+        Assert.assertEquals(112, buffers.stream().mapToLong(buffer -> buffer.getLong(0)).distinct().count());
+    }
+
+    @Test
+    public void testGrowAndRelease() {
+        SlabArena arena = new SlabArena(64, 1024, 16, new MemoryBudget(0));
+        List<ByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 17; i++) {
+            buffers.add(arena.allocate());
+        }
+        Assert.assertEquals(32, arena.capacity());
+        Assert.assertEquals(15, arena.available());
+
+        ByteBuffer released = buffers.get(3);
+        released.position(10);
+        Assert.assertTrue(arena.release(released));
+        Assert.assertEquals(0, released.position());
+        Assert.assertEquals(16, arena.available());
+        Assert.assertFalse(arena.release(ByteBuffer.allocateDirect(64)));
+    }
+
+    @Test
+    public void testConcurrentAllocation() {
+        SlabArena arena = new SlabArena(32, 4096, 64, new MemoryBudget(0));
+        AtomicBoolean shared = new AtomicBoolean();
+        IntStream.range(0, 8).parallel().forEach(thread -> {
+            for (int i = 0; i < 10000; i++) {
+                ByteBuffer buffer = arena.allocate();
+                buffer.putInt(0, thread);
+                Thread.yield();
+                if(buffer.getInt(0) != thread) {
+                    shared.set(true);
+                }
+                arena.release(buffer);
+            }
+        });
+        Assert.assertFalse(shared.get());
+        Assert.assertEquals(arena.capacity(), arena.available());
+    }
+
+    @Test
+    public void testArenaPools() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        config.arenaSlabSize = 1 << 16;
+        config.complete();
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+
+        ByteBuffer segment = resourcePool.getSegmentBuffer();
+        Assert.assertEquals(config.bufferSegmentSize, segment.capacity());
+        resourcePool.recycleBuffer(segment);
+        Assert.assertSame(segment, resourcePool.getSegmentBuffer());
+        Assert.assertNotNull(config.bufferPools.get(16384).getArena());
+    }
+
+    @Test
+    public void testGrowthBoundedByBudget() {
+        MemoryBudget budget = new MemoryBudget(3 * 1024);
+        SlabArena arena = new SlabArena(64, 1024, 16, budget);
+        List<ByteBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 48; i++) {
+            buffers.add(arena.allocate());
+        }
+        Assert.assertEquals(48, arena.capacity());
+        Assert.assertEquals(3 * 1024, budget.reserved());
+        Assert.assertNull(arena.allocate());
+        Assert.assertEquals(48, arena.capacity());
+
+        Assert.assertTrue(arena.release(buffers.get(0)));
+        Assert.assertNotNull(arena.allocate());
+    }
+
+    @Test
+    public void testArenaPoolsShareBudget() {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        config.arenaSlabSize = 1 << 16;
+        config.bufferPoolBudget = 1;
+        config.complete();
+        ResourcePool resourcePool = ResourcePool.initialize(config);
+
+        BufferPool pool = config.bufferPools.get(16384);
+        List<ByteBuffer> buffers = new ArrayList<>();
+        int capacity = pool.capacity();
+        for (int i = 0; i < capacity; i++) {
+            buffers.add(resourcePool.getBuffer(16384));
+        }
+        ByteBuffer unpooled = resourcePool.getBuffer(16384);
+        Assert.assertEquals(16384, unpooled.capacity());
+        Assert.assertEquals(capacity, pool.capacity());
+        Assert.assertFalse(pool.getArena().release(unpooled));
+    }
+}
@@ -0,0 +1,194 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.ArrayPacketBuffer;
+import io.github.andyalvarezdev.mmocore.internal.SnapshotBaselines;
+import io.github.andyalvarezdev.mmocore.internal.SnapshotHistory;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SnapshotTest {
+
+    private ResourcePool resourcePool;
+    private SnapshotBaselines baselines;
+    private SnapshotHistory history;
+    private int encodedSize;
+
+    @Before
+    public void setUp() {
+        resourcePool = ResourcePool.initialize(new ConnectionConfig<>(null, null, null));
+        baselines = new SnapshotBaselines(5000);
+        history = new SnapshotHistory(5000, 1024, 16);
+    }
+
+    private Snapshot transmit(int objectId, byte[] state) {
+        ArrayPacketBuffer buffer = new ArrayPacketBuffer(16, resourcePool);
+        baselines.write(buffer, objectId, state);
+        buffer.mark();
+        encodedSize = buffer.position();
+        buffer.position(0);
+        Snapshot snapshot = history.read(buffer);
+        Assert.assertEquals(0, buffer.remaining());
+        return snapshot;
+    }
+
+    private static byte[] state(int size, int seed) {
+        byte[] state = new byte[size];
+        for (int i = 0; i < size; i++) {
+            state[i] = (byte) (i * seed);
+        }
+        return state;
+    }
+
+    @Test
+    public void testFullSnapshotWithoutAck() {
+        byte[] state = state(100, 3);
+        Snapshot first = transmit(7, state);
+        Assert.assertArrayEquals(state, first.getData());
+        Assert.assertEquals(7, first.getObjectId());
+        Assert.assertTrue(encodedSize > state.length);
+
+        state[10] = 42;
+        Snapshot second = transmit(7, state);
+        Assert.assertArrayEquals(state, second.getData());
+        Assert.assertTrue(encodedSize > state.length);
+        Assert.assertNotEquals(first.getSequence(), second.getSequence());
+    }
+
+    @Test
+    public void testLateAckAfterFullSnapshots() {
+        byte[] first = state(100, 3);
+        Snapshot s1 = transmit(7, first);
+        byte[] second = state(100, 5);
+        Snapshot s2 = transmit(7, second);
+        Assert.assertArrayEquals(second, s2.getData());
+
+        baselines.acknowledge(7, s1.getSequence());
+        byte[] third = first.clone();
+        third[20] = 42;
+        Snapshot s3 = transmit(7, third);
+        Assert.assertArrayEquals(third, s3.getData());
+        Assert.assertTrue(encodedSize < 20);
+    }
+
+    @Test
+    public void testDeltaAfterAck() {
+        byte[] state = state(100, 3);
+        Snapshot first = transmit(7, state);
+        baselines.acknowledge(first.getObjectId(), first.getSequence());
+
+        state[10] = 42;
+        state[11] = 43;
+        state[90] = 44;
+        Snapshot second = transmit(7, state);
+        Assert.assertArrayEquals(state, second.getData());
+        Assert.assertTrue(encodedSize < 20);
+
+        Snapshot unchanged = transmit(7, state);
+        Assert.assertArrayEquals(state, unchanged.getData());
+    }
+
+    @Test
+    public void testDeltaWithChangedLength() {
+        Snapshot first = transmit(1, state(50, 5));
+        baselines.acknowledge(1, first.getSequence());
+
+        byte[] longer = state(60, 5);
+        longer[0] = -1;
+        Assert.assertArrayEquals(longer, transmit(1, longer).getData());
+
+        byte[] shorter = state(30, 5);
+        shorter[29] = -1;
+        Assert.assertArrayEquals(shorter, transmit(1, shorter).getData());
+    }
+
+    @Test
+    public void testDeltaAgainstLatestAck() {
+        byte[] state = state(64, 7);
+        Snapshot first = transmit(3, state);
+        baselines.acknowledge(3, first.getSequence());
+
+        state[5] = 1;
+        Snapshot second = transmit(3, state);
+        state[6] = 2;
+        Snapshot third = transmit(3, state);
+        baselines.acknowledge(3, third.getSequence());
+        baselines.acknowledge(3, second.getSequence());
+
+        state[7] = 3;
+        Assert.assertArrayEquals(state, transmit(3, state).getData());
+    }
+
+    @Test
+    public void testObjectsAreIndependent() {
+        Snapshot first = transmit(1, state(20, 1));
+        baselines.acknowledge(1, first.getSequence());
+
+        byte[] other = state(20, 2);
+        Assert.assertArrayEquals(other, transmit(2, other).getData());
+        Assert.assertTrue(encodedSize > other.length);
+    }
+
+    @Test
+    public void testExpiredBaseline() throws InterruptedException {
+        baselines = new SnapshotBaselines(10);
+        byte[] state = state(40, 3);
+        Snapshot first = transmit(1, state);
+        baselines.acknowledge(1, first.getSequence());
+
+        Thread.sleep(50);
+        Assert.assertArrayEquals(state, transmit(1, state).getData());
+        Assert.assertTrue(encodedSize > state.length);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testUnknownBaseline() {
+        Snapshot first = transmit(1, state(20, 1));
+        baselines.acknowledge(1, first.getSequence());
+        history = new SnapshotHistory(5000, 1024, 16);
+        transmit(1, state(20, 2));
+    }
+
+    private Snapshot readHeader(int objectId, int baselineSequence, int size) {
+        ArrayPacketBuffer buffer = new ArrayPacketBuffer(16, resourcePool);
+        buffer.writeVarInt(objectId);
+        buffer.writeVarInt(1);
+        buffer.writeVarInt(baselineSequence);
+        buffer.writeVarInt(size);
+        buffer.writeVarInt(0);
+        buffer.mark();
+        buffer.position(0);
+        return history.read(buffer);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWholeStateLargerThanPayload() {
+        readHeader(1, 0, 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeStateSize() {
+        readHeader(1, 0, -1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDeltaLargerThanMaxSize() {
+        Snapshot first = transmit(1, state(20, 1));
+        baselines.acknowledge(1, first.getSequence());
+        readHeader(1, first.getSequence(), Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testTooManyObjects() {
+        for (int i = 0; i < 16; i++) {
+            transmit(i, state(4, i));
+        }
+        Assert.assertArrayEquals(state(4, 3), transmit(3, state(4, 3)).getData());
+        try {
+            transmit(16, state(4, 1));
+            Assert.fail("Exception is Expected");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getMessage().startsWith("Too many replicated objects"));
+        }
+    }
+}
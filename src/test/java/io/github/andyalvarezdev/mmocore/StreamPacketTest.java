@@ -0,0 +1,110 @@
+package io.github.andyalvarezdev.mmocore;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class StreamPacketTest {
+
+    private static Path file(byte[] content) throws IOException {
+        Path file = Files.createTempFile("stream", ".bin");
+        file.toFile().deleteOnExit();
+        return Files.write(file, content);
+    }
+
+    private static byte[] content(int size) {
+        byte[] content = new byte[size];
+        new Random(11).nextBytes(content);
+        return content;
+    }
+
+    @Test
+    public void testChunks() throws IOException {
+        byte[] content = content(10000);
+        try(FileChannel channel = FileChannel.open(file(content), StandardOpenOption.READ)) {
+            FileStream stream = new FileStream(channel, 100, 9500);
+            int[] sizes = { 3000, 3000, 3000, 500 };
+            for (int i = 0; i < sizes.length; i++) {
+                Assert.assertTrue(stream.nextChunk(3000, 4000));
+                Assert.assertEquals(i * 3000L, stream.chunkOffset());
+                Assert.assertEquals(sizes[i], stream.chunkSize());
+                Assert.assertEquals(i == sizes.length - 1, stream.isLastChunk());
+            }
+            Assert.assertFalse(stream.nextChunk(3000, 4000));
+        }
+    }
+
+    @Test
+    public void testStream() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+        byte[] content = content(300000);
+        byte[] received = new byte[content.length];
+        AtomicInteger receivedBytes = new AtomicInteger();
+        AtomicInteger receivedBeforePing = new AtomicInteger(-1);
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> {
+            if(buffer.readByte() == 1) {
+                int offset = (int) buffer.readLong();
+                int length = buffer.remaining();
+                buffer.readBytes(received, offset, length);
+                receivedBytes.addAndGet(length);
+            } else {
+                receivedBeforePing.set(receivedBytes.get());
+            }
+            return null;
+        }, packet -> { }).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).streaming(4096, 65536).connect(socketAddress);
+            AtomicBoolean completed = new AtomicBoolean();
+            try(FileChannel channel = FileChannel.open(file(content), StandardOpenOption.READ)) {
+                client.writeStream(new FileStream(channel, 0, content.length) {
+                    @Override
+                    protected void onStreamEnd(boolean success) {
+                        completed.set(success);
+                    }
+                });
+                client.sendPacket(new WritablePacket<>() {
+                    @Override
+                    protected boolean write(AsyncClient client) {
+                        writeByte(2);
+                        return true;
+                    }
+                });
+                Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> receivedBytes.get() == content.length && completed.get());
+            }
+            Assert.assertArrayEquals(content, received);
+            Assert.assertTrue(receivedBeforePing.get() >= 0 && receivedBeforePing.get() < content.length);
+        } finally {
+            handler.shutdown();
+            handler.join();
+        }
+    }
+
+    static class FileStream extends StreamPacket<AsyncClient> {
+
+        FileStream(FileChannel channel, long position, long size) {
+            super(channel, position, size);
+        }
+
+        @Override
+        protected boolean write(AsyncClient client) {
+            writeByte(1);
+            writeLong(chunkOffset());
+            writeChunk();
+            return true;
+        }
+    }
+}
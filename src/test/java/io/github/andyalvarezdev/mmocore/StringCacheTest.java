@@ -0,0 +1,113 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.internal.StringCache;
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class StringCacheTest {
+
+    @Test
+    public void testCachedString() {
+        StringCache cache = new StringCache(16);
+        char[] chars = "xAndyx".toCharArray();
+
+        String first = cache.get(chars, 1, 4);
+        String second = cache.get(chars, 1, 4);
+
+        Assert.assertEquals("Andy", first);
+        Assert.assertSame(first, second);
+    }
+
+    @Test
+    public void testDifferentStrings() {
+        StringCache cache = new StringCache(1);
+        String first = cache.get("Andy".toCharArray(), 0, 4);
+        String second = cache.get("Alvarez".toCharArray(), 0, 7);
+        String third = cache.get("Andy".toCharArray(), 0, 4);
+
+        Assert.assertEquals("Andy", first);
+        Assert.assertEquals("Alvarez", second);
+        Assert.assertEquals("Andy", third);
+    }
+
+    @Test
+    public void testLongStringNotCached() {
+        StringCache cache = new StringCache(16);
+        char[] chars = new char[100];
+        Assert.assertNotSame(cache.get(chars, 0, 100), cache.get(chars, 0, 100));
+    }
+
+    @Test
+    public void testStringsReadFromPackets() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress address = new InetSocketAddress("127.0.0.1", 9090);
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            builder.append((char) ('a' + i % 26));
+        }
+        String longString = builder.toString();
+        Queue<String> received = new ConcurrentLinkedQueue<>();
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(address, AsyncClient::new, (buffer, client) -> new StringsPacket(received),
+                packet -> { }).stringCacheSize(32).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).connect(address);
+            for (int i = 0; i < 2; i++) {
+                client.sendPacket(new WritablePacket<>() {
+                    @Override
+                    protected boolean write(AsyncClient client) {
+                        writeString("Pong");
+                        writeSizedString("Packet");
+                        writeString(longString);
+                        writeSizedString(longString);
+                        return true;
+                    }
+                });
+            }
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> received.size() == 8);
+            List<String> strings = new ArrayList<>(received);
+            Assert.assertEquals("Pong", strings.get(0));
+            Assert.assertEquals("Packet", strings.get(1));
+            Assert.assertSame(strings.get(0), strings.get(4));
+            Assert.assertSame(strings.get(1), strings.get(5));
+            Assert.assertEquals(longString, strings.get(2));
+            Assert.assertEquals(longString, strings.get(3));
+            Assert.assertEquals(longString, strings.get(6));
+            Assert.assertEquals(longString, strings.get(7));
+        } finally {
+            handler.shutdown();
+            handler.join();
+        }
+    }
+
+    static class StringsPacket extends ReadablePacket<AsyncClient> {
+
+        private final Queue<String> received;
+
+        StringsPacket(Queue<String> received) {
+            this.received = received;
+        }
+
+        @Override
+        protected boolean read() {
+            received.add(readInternedString());
+            received.add(readInternedSizedString());
+            received.add(readString());
+            received.add(readSizedString());
+            return true;
+        }
+
+        @Override
+        public void run() {
+        }
+    }
+}
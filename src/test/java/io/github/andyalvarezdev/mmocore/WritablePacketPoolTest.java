@@ -0,0 +1,107 @@
+package io.github.andyalvarezdev.mmocore;
+
+import org.awaitility.Awaitility;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class WritablePacketPoolTest {
+
+    @Test
+    public void testRecycleAfterRelease() {
+        WritablePacketPool<PooledPacket> pool = new WritablePacketPool<>(PooledPacket::new, 2);
+        PooledPacket packet = pool.acquire();
+        packet.value = 10;
+
+        packet.retain();
+        Assert.assertEquals(0, pool.idle());
+
+        packet.release();
+        Assert.assertEquals(1, pool.idle());
+        Assert.assertEquals(0, packet.value);
+        Assert.assertSame(packet, pool.acquire());
+    }
+
+    @Test
+    public void testRecycleOnlyAfterAllWrites() {
+        WritablePacketPool<PooledPacket> pool = new WritablePacketPool<>(PooledPacket::new, 2);
+        PooledPacket packet = pool.acquire();
+
+        packet.retain();
+        packet.retain();
+        packet.release();
+        Assert.assertEquals(0, pool.idle());
+
+        packet.release();
+        Assert.assertEquals(1, pool.idle());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRetainRecycled() {
+        WritablePacketPool<PooledPacket> pool = new WritablePacketPool<>(PooledPacket::new, 2);
+        PooledPacket packet = pool.acquire();
+        packet.retain();
+        packet.release();
+        packet.retain();
+    }
+
+    @Test
+    public void testMaxIdle() {
+        WritablePacketPool<PooledPacket> pool = new WritablePacketPool<>(PooledPacket::new, 1);
+        PooledPacket first = pool.acquire();
+        PooledPacket second = pool.acquire();
+        first.retain();
+        second.retain();
+        first.release();
+        second.release();
+        Assert.assertEquals(1, pool.idle());
+    }
+
+    @Test
+    public void testNonPooledPacket() {
+        PooledPacket packet = new PooledPacket();
+        packet.value = 10;
+        packet.retain();
+        packet.release();
+        Assert.assertEquals(10, packet.value);
+    }
+
+    @Test
+    public void testRecycleAfterSend() throws IOException, ExecutionException, InterruptedException {
+        InetSocketAddress socketAddress = new InetSocketAddress("127.0.0.1", 9090);
+        ConnectionHandler<AsyncClient> handler = ConnectionBuilder.create(socketAddress, AsyncClient::new, (buffer, client) -> null, packet -> { }).shutdownWaitTime(100).build();
+        try {
+            handler.start();
+            AsyncClient client = Connector.create(AsyncClient::new, null, null).connect(socketAddress);
+            WritablePacketPool<PooledPacket> pool = new WritablePacketPool<>(PooledPacket::new, 2);
+            PooledPacket packet = pool.acquire();
+            packet.value = 30;
+            client.sendPacket(packet);
+            Awaitility.waitAtMost(10, TimeUnit.SECONDS).until(() -> pool.idle() == 1);
+            Assert.assertEquals(0, packet.value);
+        } finally {
+            handler.shutdown();
+            handler.join();
+        }
+    }
+
+    static class PooledPacket extends WritablePacket<AsyncClient> {
+
+        private int value;
+
+        @Override
+        protected boolean write(AsyncClient client) {
+            writeInt(value);
+            return true;
+        }
+
+        @Override
+        protected void reset() {
+            value = 0;
+        }
+    }
+}
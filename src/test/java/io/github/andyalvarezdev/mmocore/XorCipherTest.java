@@ -0,0 +1,151 @@
+package io.github.andyalvarezdev.mmocore;
+
+import io.github.andyalvarezdev.mmocore.crypt.XorCipher;
+import io.github.andyalvarezdev.mmocore.internal.DynamicPacketBuffer;
+import io.github.andyalvarezdev.mmocore.internal.WritableBuffer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class XorCipherTest {
+
+    private static final byte[] KEY = { 0x6b, 0x60, (byte) 0xcb, 0x5b, (byte) 0x82, (byte) 0xce, (byte) 0x90, (byte) 0xb1,
+            (byte) 0xc8, 0x27, (byte) 0x93, 0x01, (byte) 0xa1, 0x6c, 0x31, (byte) 0x97 };
+
+    private static WritableBuffer buffer(byte[] data, ByteBuffer first) {
+        ConnectionConfig<?> config = new ConnectionConfig<>(null, null, null);
+        config.newBufferGroup(4, 32);
+        WritableBuffer buffer = new DynamicPacketBuffer(first, ResourcePool.initialize(config));
+        buffer.writeBytes(data);
+        buffer.mark();
+        return buffer;
+    }
+
+    private static byte[] bytes(Buffer buffer, int offset, int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = buffer.readByte(offset + i);
+        }
+        return bytes;
+    }
+
+    @Test
+    public void testReferenceCompatibility() {
+        Random random = new Random(31);
+        XorCipher cipher = new XorCipher(KEY);
+        XorCipher decipher = new XorCipher(KEY);
+        ReferenceCipher reference = new ReferenceCipher(KEY);
+
+        for (int packet = 0; packet < 50; packet++) {
+            int offset = random.nextInt(5);
+            byte[] data = new byte[offset + random.nextInt(200)];
+            random.nextBytes(data);
+            int size = data.length - offset;
+
+            WritableBuffer buffer = buffer(data, packet % 2 == 0 ? ByteBuffer.allocate(32) : ByteBuffer.allocateDirect(27).order(ByteOrder.LITTLE_ENDIAN));
+            cipher.encrypt(buffer, offset, size);
+            byte[] expected = data.clone();
+            reference.encrypt(expected, offset, size);
+            Assert.assertArrayEquals(expected, bytes(buffer, 0, data.length));
+
+            decipher.decrypt(buffer, offset, size);
+            Assert.assertArrayEquals(data, bytes(buffer, 0, data.length));
+        }
+    }
+
+    @Test
+    public void testDecryptReference() {
+        XorCipher cipher = new XorCipher(KEY);
+        ReferenceCipher reference = new ReferenceCipher(KEY);
+        for (int packet = 0; packet < 3; packet++) {
+            byte[] data = new byte[70 + packet];
+            new Random(packet).nextBytes(data);
+            byte[] encrypted = data.clone();
+            reference.encrypt(encrypted, 0, encrypted.length);
+
+            WritableBuffer buffer = buffer(encrypted, ByteBuffer.allocate(32));
+            cipher.decrypt(buffer, 0, encrypted.length);
+            Assert.assertArrayEquals(data, bytes(buffer, 0, data.length));
+        }
+    }
+
+    @Test
+    public void testFullDuplex() throws InterruptedException {
+        XorCipher cipher = new XorCipher(KEY);
+        XorCipher peer = new XorCipher(KEY);
+        ReferenceCipher reference = new ReferenceCipher(KEY);
+        List<byte[]> inbound = new ArrayList<>();
+        List<byte[]> encrypted = new ArrayList<>();
+        Random random = new Random(7);
+        for (int packet = 0; packet < 2000; packet++) {
+            byte[] data = new byte[1 + random.nextInt(300)];
+            random.nextBytes(data);
+            inbound.add(data);
+            byte[] bytes = data.clone();
+            reference.encrypt(bytes, 0, bytes.length);
+            encrypted.add(bytes);
+        }
+
+        AtomicBoolean decrypted = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < encrypted.size(); i++) {
+                WritableBuffer buffer = buffer(encrypted.get(i), ByteBuffer.allocate(64));
+                cipher.decrypt(buffer, 0, encrypted.get(i).length);
+                if(!Arrays.equals(inbound.get(i), bytes(buffer, 0, inbound.get(i).length))) {
+                    decrypted.set(false);
+                }
+            }
+        });
+        reader.start();
+        for (byte[] data : inbound) {
+            WritableBuffer buffer = buffer(data, ByteBuffer.allocate(64));
+            cipher.encrypt(buffer, 0, data.length);
+            peer.decrypt(buffer, 0, data.length);
+            Assert.assertArrayEquals(data, bytes(buffer, 0, data.length));
+        }
+        reader.join();
+        Assert.assertTrue(decrypted.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidKey() {
+        new XorCipher(new byte[8]);
+    }
+
+    /**
+     * The byte by byte implementation of the cipher.
+     */
+    private static class ReferenceCipher {
+        private final byte[] key;
+
+        private ReferenceCipher(byte[] key) {
+            this.key = key.clone();
+        }
+
+        private void encrypt(byte[] raw, int offset, int size) {
+            int temp = 0;
+            for (int i = 0; i < size; i++) {
+                int temp2 = raw[offset + i] & 0xFF;
+                temp = temp2 ^ key[i & 15] ^ temp;
+                raw[offset + i] = (byte) temp;
+            }
+
+            int old = key[8] & 0xff;
+            old |= key[9] << 8 & 0xff00;
+            old |= key[10] << 0x10 & 0xff0000;
+            old |= key[11] << 0x18 & 0xff000000;
+            old += size;
+            key[8] = (byte) (old & 0xff);
+            key[9] = (byte) (old >> 0x08 & 0xff);
+            key[10] = (byte) (old >> 0x10 & 0xff);
+            key[11] = (byte) (old >> 0x18 & 0xff);
+        }
+    }
+}